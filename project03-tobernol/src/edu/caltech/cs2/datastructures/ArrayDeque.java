@@ -1,84 +1,198 @@
 package edu.caltech.cs2.datastructures;
 
+import edu.caltech.cs2.interfaces.ICapacityPolicy;
 import edu.caltech.cs2.interfaces.IDeque;
 import edu.caltech.cs2.interfaces.IQueue;
 import edu.caltech.cs2.interfaces.IStack;
 import java.util.Iterator;
 
+/**
+ * Circular-buffer deque. Elements live in data[head], data[head + 1], ..., data[head + size - 1],
+ * with indices taken modulo the capacity; the capacity is always a power of two, so the modulus is a mask.
+ * How the array grows and shrinks is delegated to an ICapacityPolicy; capacities it asks for are rounded
+ * up to the next power of two, and the largest power of two not above its maxCapacity() is a hard limit.
+ */
 public class ArrayDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
     private static final int grow_factor = 2;
     private static final int default_capacity = 10;
     private E[] data;
+    private int head;
     private int size;
+    private ICapacityPolicy policy;
+    private int peakSize;
+    private int resizeCount;
 
     public ArrayDeque(){
         this(default_capacity);
     }
 
     public ArrayDeque(int initialCapacity){
-        this.data =  (E[])new Object[initialCapacity];
+        this(initialCapacity, new HysteresisCapacityPolicy(Math.max(1, initialCapacity)));
     }
 
-    private int capacity(){
+    public ArrayDeque(int initialCapacity, ICapacityPolicy policy){
+        if (initialCapacity > policy.maxCapacity()) {
+            throw new IllegalArgumentException("initial capacity " + initialCapacity + " exceeds maximum " + policy.maxCapacity());
+        }
+        this.policy = policy;
+        this.data = (E[])new Object[this.roundUp(initialCapacity)];
+    }
+
+    /**
+     * Returns the length of the backing array.
+     * @return Current capacity
+     */
+    public int capacity(){
         return this.data.length;
     }
 
-    private void ensureCapacity(int size){
+    /**
+     * Returns the largest number of elements this deque has held at once.
+     * @return Peak size
+     */
+    public int peakSize() {
+        return this.peakSize;
+    }
+
+    /**
+     * Returns how many times the backing array has been reallocated, by growth, shrinking or trimToSize().
+     * @return Number of resizes
+     */
+    public int resizeCount() {
+        return this.resizeCount;
+    }
+
+    /**
+     * Shrinks the backing array to the smallest power of two that holds the current elements.
+     */
+    public void trimToSize() {
+        int trimmed = this.roundUp(this.size);
+        if (trimmed < this.capacity()) {
+            this.resize(trimmed);
+        }
+    }
+
+    // smallest power of two that is at least n, and never above the policy's hard limit
+    private int roundUp(int n) {
+        int limit = Integer.highestOneBit(Math.min(this.policy.maxCapacity(), 1 << 30));
+        int capacity = 1;
+        while (capacity < n && capacity < limit) {
+            capacity *= grow_factor;
+        }
+        return capacity;
+    }
+
+    // maps a logical position (0 = front) to a slot in the backing array
+    private int slot(int index) {
+        return (this.head + index) & (this.data.length - 1);
+    }
+
+    // returns false if the policy will not let the array reach the requested size
+    private boolean ensureCapacity(int size){
         if (this.capacity() < size){
-            E[] newData = (E[])new Object[(int)(this.capacity()*grow_factor)];
-            for (int i = 0; i < this.size; i++){
-                newData[i] = this.data[i];
+            int newCapacity = this.roundUp(this.policy.grow(this.capacity(), size));
+            if (newCapacity < size) {
+                return false;
+            }
+            this.resize(newCapacity);
+        }
+        return true;
+    }
+
+    private void releaseCapacity() {
+        int target = this.policy.shrink(this.capacity(), this.size);
+        if (target < this.capacity()) {
+            int newCapacity = this.roundUp(Math.max(target, this.size));
+            if (newCapacity < this.capacity()) {
+                this.resize(newCapacity);
             }
-            this.data = newData;
+        }
+    }
+
+    // copies the elements into a new array of the given capacity, compacting them so the front is at index 0
+    private void resize(int newCapacity) {
+        E[] newData = (E[])new Object[newCapacity];
+        int firstSegment = Math.min(this.size, this.capacity() - this.head);
+        System.arraycopy(this.data, this.head, newData, 0, firstSegment);
+        System.arraycopy(this.data, 0, newData, firstSegment, this.size - firstSegment);
+        this.data = newData;
+        this.head = 0;
+        this.resizeCount++;
+    }
+
+    // like the JDK's own ArrayDeque, grows as soon as the array fills rather than on the next add
+    private void grew() {
+        this.size++;
+        if (this.size > this.peakSize) {
+            this.peakSize = this.size;
+        }
+        if (this.size == this.capacity()) {
+            ensureCapacity(this.size + 1);
         }
     }
 
     @Override
     public void addFront(E e) {
-        ensureCapacity(this.size + 1);
-        for (int i = this.size; i > 0; i--){
-            this.data[i] = this.data[i - 1];
+        if (!this.offerFront(e)) {
+            throw new IllegalStateException("deque is at its maximum capacity of " + this.capacity());
+        }
+    }
+
+    private boolean offerFront(E e) {
+        if (this.size == this.capacity() && !ensureCapacity(this.size + 1)) {
+            return false;
         }
-        this.data[0] = e;
-        this.size ++;
+        this.head = (this.head - 1) & (this.data.length - 1);
+        this.data[this.head] = e;
+        this.grew();
+        return true;
     }
 
     @Override
     public void addBack(E e) {
-        ensureCapacity(this.size + 1);
-        this.data[this.size] = e;
-        this.size++;
+        if (!this.offerBack(e)) {
+            throw new IllegalStateException("deque is at its maximum capacity of " + this.capacity());
+        }
+    }
+
+    private boolean offerBack(E e) {
+        if (this.size == this.capacity() && !ensureCapacity(this.size + 1)) {
+            return false;
+        }
+        this.data[this.slot(this.size)] = e;
+        this.grew();
+        return true;
     }
 
     @Override
     public E removeFront() {
-        E first_elem = this.data[0];
-        E[] newData = (E[])new Object[this.capacity()];
-        for (int i = 0; i < this.size - 1; i++) {
-            newData[i] = this.data[i + 1];
-        }
-        this.data = newData;
-        if (this.size != 0){
-            this.size--;
+        if (this.size == 0) {
+            return null;
         }
+        E first_elem = this.data[this.head];
+        this.data[this.head] = null;
+        this.head = this.slot(1);
+        this.size--;
+        this.releaseCapacity();
         return first_elem;
     }
 
     @Override
     public E removeBack() {
-        if (this.size != 0) {
-            if (this.size != 0) {
-                this.size--;
-                return this.data[this.size];
-            }
+        if (this.size == 0) {
+            return null;
         }
-        return null;
+        this.size--;
+        int last = this.slot(this.size);
+        E last_elem = this.data[last];
+        this.data[last] = null;
+        this.releaseCapacity();
+        return last_elem;
     }
 
     @Override
     public boolean enqueue(E e) {
-        ArrayDeque.this.addFront(e);
-        return true;
+        return ArrayDeque.this.offerFront(e);
     }
 
     @Override
@@ -88,8 +202,7 @@ public class ArrayDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
 
     @Override
     public boolean push(E e) {
-        ArrayDeque.this.addBack(e);
-        return true;
+        return ArrayDeque.this.offerBack(e);
     }
 
     @Override
@@ -108,7 +221,7 @@ public class ArrayDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
             return null;
         }
         else {
-            return this.data[0];
+            return this.data[this.head];
         }
     }
 
@@ -118,7 +231,7 @@ public class ArrayDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
             return null;
         }
         else {
-            return this.data[this.size - 1];
+            return this.data[this.slot(this.size - 1)];
         }
     }
 
@@ -135,7 +248,7 @@ public class ArrayDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
 
         public E next() {
             this.idx++;
-            return ArrayDeque.this.data[this.idx];
+            return ArrayDeque.this.data[ArrayDeque.this.slot(this.idx)];
         }
     }
 
@@ -153,12 +266,11 @@ public class ArrayDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
         if (this.size == 0) {
             return "[]";
         }
-        String result = "[";
+        StringBuilder result = new StringBuilder("[");
         for (int i = 0; i < this.size; i++) {
-            result += this.data[i] + ", ";
+            result.append(this.data[this.slot(i)]).append(", ");
         }
-        result = result.substring(0, result.length() - 2);
-        return result + "]";
+        result.setLength(result.length() - 2);
+        return result.append("]").toString();
     }
 }
-
@@ -4,22 +4,29 @@ import edu.caltech.cs2.interfaces.IFixedSizeQueue;
 
 import java.util.Iterator;
 
+/**
+ * Fixed-size circular queue. The element count is tracked explicitly, so size(), isFull() and peek() are
+ * plain field reads that do not depend on which slots hold null, and null elements are counted like any other.
+ */
 public class CircularArrayFixedSizeQueue<E> implements IFixedSizeQueue<E> {
     private int front;
-    private int back;
+    private int size;
     private E[] data;
 
     public CircularArrayFixedSizeQueue(int capacity){
         this.data =  (E[])new Object[capacity];
-        this.front = this.back = 0;
+        this.front = this.size = 0;
+    }
+
+    // maps a logical position (0 = front) to a slot in the backing array
+    private int slot(int index) {
+        int i = this.front + index;
+        return i >= this.data.length ? i - this.data.length : i;
     }
 
     @Override
     public boolean isFull() {
-        if (this.capacity() == this.size()) {
-            return true;
-        }
-        return false;
+        return this.size == this.data.length;
     }
 
     @Override
@@ -29,88 +36,84 @@ public class CircularArrayFixedSizeQueue<E> implements IFixedSizeQueue<E> {
 
     @Override
     public boolean enqueue(E e) {
-        if (this.isFull()) {
+        if (this.size == this.data.length) {
             return false;
         }
-        else if (this.size() == 0){
-            this.front = 0;
-            this.back = 0;
-            this.data[this.back] = e;
-            return true;
-        }
-        else {
-            if (this.back == this.capacity() - 1){
-                this.back = -1;
-            }
-            this.back++;
-            this.data[this.back] = e;
-            return true;
-        }
+        this.data[this.slot(this.size)] = e;
+        this.size++;
+        return true;
     }
 
     @Override
     public E dequeue() {
-        if (this.size() == 0){
+        if (this.size == 0){
             return null;
         }
         E data = this.data[this.front];
         this.data[this.front] = null;
-        if (this.front == this.back) {
-            return data;
-        }
-        if (this.front == this.capacity() - 1){
-            this.front = 0;
-            }
-        else {
-            this.front++;
-        }
+        this.front = this.slot(1);
+        this.size--;
         return data;
     }
 
+    @Override
+    public int enqueueAll(E[] src, int off, int len) {
+        if (len < 0) {
+            throw new IllegalArgumentException("len must not be negative");
+        }
+        int n = Math.min(len, this.data.length - this.size);
+        int start = this.slot(this.size);
+        int first = Math.min(n, this.data.length - start);
+        System.arraycopy(src, off, this.data, start, first);
+        System.arraycopy(src, off + first, this.data, 0, n - first);
+        this.size += n;
+        return n;
+    }
+
+    @Override
+    public int drainTo(E[] dst, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max must not be negative");
+        }
+        int n = Math.min(max, this.size);
+        int first = Math.min(n, this.data.length - this.front);
+        System.arraycopy(this.data, this.front, dst, 0, first);
+        System.arraycopy(this.data, 0, dst, first, n - first);
+        // the same two contiguous runs the copies read, so no slot needs wrapping
+        for (int i = this.front; i < this.front + first; i++) {
+            this.data[i] = null;
+        }
+        for (int i = 0; i < n - first; i++) {
+            this.data[i] = null;
+        }
+        this.front = this.slot(n);
+        this.size -= n;
+        return n;
+    }
+
     @Override
     public E peek() {
-        if (this.back == this.front && this.data[this.front] == null){
-            return null;
-        }
-        else{
-            return this.data[this.front];
-        }
+        return this.size == 0 ? null : this.data[this.front];
     }
 
     @Override
     public int size() {
-        if (this.back == this.front && this.data[this.front] == null) {
-            return 0;
-        }
-        if (this.back == this.front && this.data[this.front] != null) {
-            return 1;
-        }
-        else if (this.back > this.front) {
-            return (this.back - this.front + 1);
-        }
-        else {
-            return (this.capacity() - (this.front - this.back - 1));
-        }
+        return this.size;
     }
 
     public class CircularArrayFixedSizedQueueIterator implements Iterator<E> {
         private int idx;
 
         public CircularArrayFixedSizedQueueIterator() {
-            this.idx = CircularArrayFixedSizeQueue.this.front;
+            this.idx = 0;
         }
 
         public boolean hasNext() {
-            return idx != CircularArrayFixedSizeQueue.this.back;
+            return idx < CircularArrayFixedSizeQueue.this.size;
         }
 
         public E next() {
-            if (idx == CircularArrayFixedSizeQueue.this.size()) {
-                idx = 0;
-            } else {
-                this.idx++;
-            }
-            return CircularArrayFixedSizeQueue.this.data[this.idx];
+            return CircularArrayFixedSizeQueue.this.data[CircularArrayFixedSizeQueue.this.slot(this.idx++)];
         }
     }
 
@@ -120,31 +123,14 @@ public class CircularArrayFixedSizeQueue<E> implements IFixedSizeQueue<E> {
     }
 
     public String toString() {
-        if (this.size() == 0) {
+        if (this.size == 0) {
             return "[]";
         }
-        String string = "";
-        if (this.front == this.back) {
-            string += this.data[this.front];
-        }
-        if (this.front > this.back) {
-            for (int i = this.back; i < this.back + this.size(); i++) {
-                string += this.data[this.back + i];
-                if (this.back + i != this.front){
-                    string += ", ";
-                }
-            }
-            return string;
-        }
-        if (this.back > this.front) {
-            for (int i = this.front; i < this.size() + this.front; i++){
-                int looper = i % (this.capacity());
-                string += this.data[looper];
-                if (looper != this.back){
-                    string += ", ";
-                }
-            }
-        }
-        return "[" + string + "]";
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            result.append(this.data[this.slot(i)]).append(", ");
         }
+        result.setLength(result.length() - 2);
+        return result.append("]").toString();
     }
+}
@@ -0,0 +1,139 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.interfaces.IDoubleFixedSizeQueue;
+
+import java.util.function.DoubleSupplier;
+
+public class DoubleFixedSizeQueue implements IDoubleFixedSizeQueue {
+    private final double[] data;
+    private int front;
+    private int size;
+
+    public DoubleFixedSizeQueue(int capacity) {
+        this.data = new double[capacity];
+        this.front = 0;
+        this.size = 0;
+    }
+
+    // maps a logical position (0 = front) to a slot in the backing array
+    private int slot(int index) {
+        int i = this.front + index;
+        return i >= this.data.length ? i - this.data.length : i;
+    }
+
+    @Override
+    public boolean enqueue(double e) {
+        if (this.size == this.data.length) {
+            return false;
+        }
+        this.data[this.slot(this.size)] = e;
+        this.size++;
+        return true;
+    }
+
+    @Override
+    public double dequeue() {
+        if (this.size == 0) {
+            throw new IllegalStateException("queue is empty");
+        }
+        double e = this.data[this.front];
+        this.front = this.slot(1);
+        this.size--;
+        return e;
+    }
+
+    @Override
+    public double peek() {
+        if (this.size == 0) {
+            throw new IllegalStateException("queue is empty");
+        }
+        return this.data[this.front];
+    }
+
+    @Override
+    public double get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + this.size);
+        }
+        return this.data[this.slot(index)];
+    }
+
+    @Override
+    public int enqueueAll(double[] src, int off, int len) {
+        if (len < 0) {
+            throw new IllegalArgumentException("len must not be negative");
+        }
+        int n = Math.min(len, this.data.length - this.size);
+        int start = this.slot(this.size);
+        int first = Math.min(n, this.data.length - start);
+        System.arraycopy(src, off, this.data, start, first);
+        System.arraycopy(src, off + first, this.data, 0, n - first);
+        this.size += n;
+        return n;
+    }
+
+    @Override
+    public int drainTo(double[] dst, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max must not be negative");
+        }
+        int n = Math.min(max, this.size);
+        int first = Math.min(n, this.data.length - this.front);
+        System.arraycopy(this.data, this.front, dst, 0, first);
+        System.arraycopy(this.data, 0, dst, first, n - first);
+        this.front = this.slot(n);
+        this.size -= n;
+        return n;
+    }
+
+    @Override
+    public int fill(DoubleSupplier supplier, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max must not be negative");
+        }
+        int n = Math.min(max, this.data.length - this.size);
+        int start = this.slot(this.size);
+        int first = Math.min(n, this.data.length - start);
+        for (int i = start; i < start + first; i++) {
+            this.data[i] = supplier.getAsDouble();
+        }
+        for (int i = 0; i < n - first; i++) {
+            this.data[i] = supplier.getAsDouble();
+        }
+        this.size += n;
+        return n;
+    }
+
+    @Override
+    public void clear() {
+        this.front = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isFull() {
+        return this.size == this.data.length;
+    }
+
+    @Override
+    public int capacity() {
+        return this.data.length;
+    }
+
+    public String toString() {
+        if (this.size == 0) {
+            return "[]";
+        }
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            result.append(this.data[this.slot(i)]).append(", ");
+        }
+        result.setLength(result.length() - 2);
+        return result.append("]").toString();
+    }
+}
@@ -0,0 +1,44 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.interfaces.ICapacityPolicy;
+
+/**
+ * Doubles on growth and halves once occupancy falls to a quarter of the capacity. The gap between
+ * the grow point (full) and the shrink point (quarter full) keeps an add/remove pair at the boundary
+ * from resizing on every call.
+ */
+public class HysteresisCapacityPolicy implements ICapacityPolicy {
+    private final int minCapacity;
+    private final int maxCapacity;
+
+    public HysteresisCapacityPolicy(int minCapacity) {
+        this(minCapacity, Integer.MAX_VALUE);
+    }
+
+    public HysteresisCapacityPolicy(int minCapacity, int maxCapacity) {
+        if (minCapacity < 1 || maxCapacity < minCapacity) {
+            throw new IllegalArgumentException("invalid capacity bounds [" + minCapacity + ", " + maxCapacity + "]");
+        }
+        this.minCapacity = minCapacity;
+        this.maxCapacity = maxCapacity;
+    }
+
+    @Override
+    public int grow(int capacity, int required) {
+        long doubled = 2L * capacity;
+        return (int) Math.min(Math.max(doubled, required), this.maxCapacity);
+    }
+
+    @Override
+    public int shrink(int capacity, int size) {
+        if (size > capacity / 4 || capacity / 2 < this.minCapacity) {
+            return capacity;
+        }
+        return capacity / 2;
+    }
+
+    @Override
+    public int maxCapacity() {
+        return this.maxCapacity;
+    }
+}
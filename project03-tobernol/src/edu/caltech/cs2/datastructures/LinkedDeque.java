@@ -7,10 +7,18 @@ import org.w3c.dom.Node;
 
 import java.util.Iterator;
 
+/**
+ * Doubly-linked deque. Removed nodes are unlinked completely; when constructed with a spare-node limit,
+ * up to that many of them are kept on a free list (chained through next) and reused by later adds,
+ * so a deque whose size stays within its recent range stops allocating.
+ */
 public class LinkedDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
     private DequeNode<E> head;
     private int size;
     private DequeNode<E> tail;
+    private DequeNode<E> spare;
+    private int spareCount;
+    private final int maxSpare;
 
     private class DequeNode<E>{
         E data;
@@ -21,10 +29,45 @@ public class LinkedDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
         }
     }
 
+    public LinkedDeque() {
+        this(0);
+    }
+
+    public LinkedDeque(int maxSpare) {
+        if (maxSpare < 0) {
+            throw new IllegalArgumentException("maxSpare must not be negative");
+        }
+        this.maxSpare = maxSpare;
+    }
+
+    private DequeNode<E> obtain(E e) {
+        if (this.spare == null) {
+            return new DequeNode<>(e);
+        }
+        DequeNode<E> node = this.spare;
+        this.spare = node.next;
+        this.spareCount--;
+        node.next = null;
+        node.data = e;
+        return node;
+    }
+
+    // clears every reference the node holds, then keeps it for reuse if the free list has room
+    private void recycle(DequeNode<E> node) {
+        node.data = null;
+        node.previous = null;
+        node.next = null;
+        if (this.spareCount < this.maxSpare) {
+            node.next = this.spare;
+            this.spare = node;
+            this.spareCount++;
+        }
+    }
+
     @Override
     public void addFront(E e) {
         DequeNode<E> curr = this.head;
-        DequeNode newElem = new DequeNode(e);
+        DequeNode<E> newElem = this.obtain(e);
         if (this.head == null) {
             this.head = newElem;
             this.tail = newElem;
@@ -40,7 +83,7 @@ public class LinkedDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
     @Override
     public void addBack(E e) {
         DequeNode<E> curr = this.tail;
-        DequeNode newElem = new DequeNode<>(e);
+        DequeNode<E> newElem = this.obtain(e);
         if (this.head == null) {
             this.head = newElem;
             this.tail = newElem;
@@ -58,15 +101,17 @@ public class LinkedDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
         if (this.head == null) {
             return null;
         }
-        E val = this.head.data;
-        if (this.head.next != null){
-            this.head = this.head.next;
+        DequeNode<E> removed = this.head;
+        E val = removed.data;
+        if (removed.next != null){
+            this.head = removed.next;
             this.head.previous = null;
         }
         else {
             this.head = null;
             this.tail = null;
         }
+        this.recycle(removed);
         this.size--;
         return val;
     }
@@ -76,15 +121,17 @@ public class LinkedDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
         if (this.tail == null) {
             return null;
         }
-        E val = this.tail.data;
-        if (this.tail.previous != null) {
-            this.tail = this.tail.previous;
+        DequeNode<E> removed = this.tail;
+        E val = removed.data;
+        if (removed.previous != null) {
+            this.tail = removed.previous;
             this.tail.next = null;
         }
         else {
             this.tail = null;
             this.head = null;
         }
+        this.recycle(removed);
         this.size--;
         return val;
     }
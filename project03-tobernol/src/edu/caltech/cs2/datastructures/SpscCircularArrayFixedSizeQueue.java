@@ -0,0 +1,239 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.interfaces.IFixedSizeQueue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Lock-free bounded queue for exactly one producer thread (enqueue) and one consumer thread (dequeue, peek,
+ * iterator). The producer owns the tail sequence and the consumer owns the head sequence; each publishes its
+ * counter with a release store and reads the other's with an acquire load, so a slot is never read before
+ * its element is written or overwritten before it is consumed. The counters grow without bound and are
+ * masked into a power-of-two array. Each one sits on its own cache line, next to the owner's cached copy of
+ * the other counter, and the class hierarchy below supplies the padding, because the JVM does not reorder
+ * fields across superclass boundaries.
+ */
+public class SpscCircularArrayFixedSizeQueue<E> extends SpscHeadPad implements IFixedSizeQueue<E> {
+    private final E[] data;
+    private final int mask;
+    private final int capacity;
+
+    public SpscCircularArrayFixedSizeQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int length = 1;
+        while (length < capacity) {
+            length *= 2;
+        }
+        this.data = (E[])new Object[length];
+        this.mask = length - 1;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean isFull() {
+        return this.size() == this.capacity;
+    }
+
+    @Override
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Adds an element to the back of the queue. Must only be called from the producer thread.
+     */
+    @Override
+    public boolean enqueue(E e) {
+        long tail = this.tail;
+        long wrapPoint = tail - this.capacity;
+        if (this.headCache <= wrapPoint) {
+            this.headCache = (long) HEAD.getAcquire(this);
+            if (this.headCache <= wrapPoint) {
+                return false;
+            }
+        }
+        this.data[(int) tail & this.mask] = e;
+        TAIL.setRelease(this, tail + 1);
+        return true;
+    }
+
+    /**
+     * Removes the element at the front of the queue. Must only be called from the consumer thread.
+     */
+    @Override
+    public E dequeue() {
+        long head = this.head;
+        if (head >= this.tailCache) {
+            this.tailCache = (long) TAIL.getAcquire(this);
+            if (head >= this.tailCache) {
+                return null;
+            }
+        }
+        int slot = (int) head & this.mask;
+        E e = this.data[slot];
+        this.data[slot] = null;
+        HEAD.setRelease(this, head + 1);
+        return e;
+    }
+
+    /**
+     * Adds a run of elements with at most two array copies and a single publish. Must only be called from
+     * the producer thread.
+     */
+    @Override
+    public int enqueueAll(E[] src, int off, int len) {
+        if (len < 0) {
+            throw new IllegalArgumentException("len must not be negative");
+        }
+        long tail = this.tail;
+        if (tail + len - this.headCache > this.capacity) {
+            this.headCache = (long) HEAD.getAcquire(this);
+        }
+        int n = (int) Math.min(len, this.capacity - (tail - this.headCache));
+        int start = (int) tail & this.mask;
+        int first = Math.min(n, this.data.length - start);
+        System.arraycopy(src, off, this.data, start, first);
+        System.arraycopy(src, off + first, this.data, 0, n - first);
+        TAIL.setRelease(this, tail + n);
+        return n;
+    }
+
+    /**
+     * Removes a run of elements with at most two array copies and a single publish. Must only be called from
+     * the consumer thread.
+     */
+    @Override
+    public int drainTo(E[] dst, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max must not be negative");
+        }
+        long head = this.head;
+        if (this.tailCache - head < max) {
+            this.tailCache = (long) TAIL.getAcquire(this);
+        }
+        int n = (int) Math.min(max, this.tailCache - head);
+        int start = (int) head & this.mask;
+        int first = Math.min(n, this.data.length - start);
+        System.arraycopy(this.data, start, dst, 0, first);
+        System.arraycopy(this.data, 0, dst, first, n - first);
+        Arrays.fill(this.data, start, start + first, null);
+        Arrays.fill(this.data, 0, n - first, null);
+        HEAD.setRelease(this, head + n);
+        return n;
+    }
+
+    /**
+     * Returns the element at the front of the queue. Must only be called from the consumer thread.
+     */
+    @Override
+    public E peek() {
+        long head = this.head;
+        if (head >= this.tailCache) {
+            this.tailCache = (long) TAIL.getAcquire(this);
+            if (head >= this.tailCache) {
+                return null;
+            }
+        }
+        return this.data[(int) head & this.mask];
+    }
+
+    /**
+     * Calculates the size of the queue. Safe from any thread, but only a snapshot when both ends are active.
+     */
+    @Override
+    public int size() {
+        while (true) {
+            long head = (long) HEAD.getAcquire(this);
+            long tail = (long) TAIL.getAcquire(this);
+            if (head == (long) HEAD.getAcquire(this)) {
+                return (int) (tail - head);
+            }
+        }
+    }
+
+    public class SpscCircularArrayFixedSizeQueueIterator implements Iterator<E> {
+        private long idx;
+        private final long end;
+
+        public SpscCircularArrayFixedSizeQueueIterator() {
+            this.idx = SpscCircularArrayFixedSizeQueue.this.head;
+            this.end = (long) TAIL.getAcquire(SpscCircularArrayFixedSizeQueue.this);
+        }
+
+        public boolean hasNext() {
+            return this.idx < this.end;
+        }
+
+        public E next() {
+            return SpscCircularArrayFixedSizeQueue.this.data[(int) this.idx++ & SpscCircularArrayFixedSizeQueue.this.mask];
+        }
+    }
+
+    /**
+     * Iterates over the elements present when the iterator is created. Must only be used from the consumer thread.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new SpscCircularArrayFixedSizeQueueIterator();
+    }
+
+    public String toString() {
+        if (this.size() == 0) {
+            return "[]";
+        }
+        StringBuilder result = new StringBuilder("[");
+        for (E item : this) {
+            result.append(item).append(", ");
+        }
+        result.setLength(result.length() - 2);
+        return result.append("]").toString();
+    }
+}
+
+// 64 bytes of padding in front of the producer's cache line
+abstract class SpscLeadPad {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+// producer line: tail is written only by the producer, headCache is its last observed head
+abstract class SpscTailField extends SpscLeadPad {
+    static final VarHandle TAIL;
+    long tail;
+    long headCache;
+
+    static {
+        try {
+            TAIL = MethodHandles.lookup().findVarHandle(SpscTailField.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
+
+abstract class SpscTailPad extends SpscTailField {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+// consumer line: head is written only by the consumer, tailCache is its last observed tail
+abstract class SpscHeadField extends SpscTailPad {
+    static final VarHandle HEAD;
+    long head;
+    long tailCache;
+
+    static {
+        try {
+            HEAD = MethodHandles.lookup().findVarHandle(SpscHeadField.class, "head", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
+
+abstract class SpscHeadPad extends SpscHeadField {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
@@ -0,0 +1,227 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.interfaces.IDeque;
+import edu.caltech.cs2.interfaces.IQueue;
+import edu.caltech.cs2.interfaces.IStack;
+
+import java.util.Iterator;
+
+/**
+ * Deque built from fixed-size array chunks linked in both directions. Elements run from head.items[headIdx]
+ * to tail.items[tailIdx - 1]; growing links in one more chunk instead of copying, and one emptied chunk is
+ * kept as a spare so an add/remove pair at a chunk boundary does not allocate.
+ */
+public class UnrolledLinkedDeque<E> implements IDeque<E>, IQueue<E>, IStack<E> {
+    private static final int default_chunk_size = 64;
+    private final int chunkSize;
+    private Chunk<E> head;
+    private Chunk<E> tail;
+    private Chunk<E> spare;
+    private int headIdx;
+    private int tailIdx;
+    private int size;
+
+    private static class Chunk<E> {
+        final E[] items;
+        Chunk<E> previous;
+        Chunk<E> next;
+
+        Chunk(int chunkSize) {
+            this.items = (E[])new Object[chunkSize];
+        }
+    }
+
+    public UnrolledLinkedDeque() {
+        this(default_chunk_size);
+    }
+
+    public UnrolledLinkedDeque(int chunkSize) {
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("chunk size must be at least 2");
+        }
+        this.chunkSize = chunkSize;
+        this.head = this.tail = new Chunk<>(chunkSize);
+        this.headIdx = this.tailIdx = chunkSize / 2;
+    }
+
+    private Chunk<E> obtainChunk() {
+        if (this.spare == null) {
+            return new Chunk<>(this.chunkSize);
+        }
+        Chunk<E> chunk = this.spare;
+        this.spare = null;
+        return chunk;
+    }
+
+    // the chunk's slots are already null, since every element is nulled out as it is removed
+    private void releaseChunk(Chunk<E> chunk) {
+        chunk.previous = null;
+        chunk.next = null;
+        this.spare = chunk;
+    }
+
+    // once empty, re-center in the single remaining chunk so both ends have room to grow
+    private void recenterIfEmpty() {
+        if (this.size == 0) {
+            this.headIdx = this.tailIdx = this.chunkSize / 2;
+        }
+    }
+
+    @Override
+    public void addFront(E e) {
+        if (this.headIdx == 0) {
+            Chunk<E> chunk = this.obtainChunk();
+            chunk.next = this.head;
+            this.head.previous = chunk;
+            this.head = chunk;
+            this.headIdx = this.chunkSize;
+        }
+        this.headIdx--;
+        this.head.items[this.headIdx] = e;
+        this.size++;
+    }
+
+    @Override
+    public void addBack(E e) {
+        if (this.tailIdx == this.chunkSize) {
+            Chunk<E> chunk = this.obtainChunk();
+            chunk.previous = this.tail;
+            this.tail.next = chunk;
+            this.tail = chunk;
+            this.tailIdx = 0;
+        }
+        this.tail.items[this.tailIdx] = e;
+        this.tailIdx++;
+        this.size++;
+    }
+
+    @Override
+    public E removeFront() {
+        if (this.size == 0) {
+            return null;
+        }
+        E val = this.head.items[this.headIdx];
+        this.head.items[this.headIdx] = null;
+        this.headIdx++;
+        this.size--;
+        if (this.headIdx == this.chunkSize && this.head != this.tail) {
+            Chunk<E> emptied = this.head;
+            this.head = emptied.next;
+            this.head.previous = null;
+            this.headIdx = 0;
+            this.releaseChunk(emptied);
+        }
+        this.recenterIfEmpty();
+        return val;
+    }
+
+    @Override
+    public E removeBack() {
+        if (this.size == 0) {
+            return null;
+        }
+        this.tailIdx--;
+        E val = this.tail.items[this.tailIdx];
+        this.tail.items[this.tailIdx] = null;
+        this.size--;
+        if (this.tailIdx == 0 && this.head != this.tail) {
+            Chunk<E> emptied = this.tail;
+            this.tail = emptied.previous;
+            this.tail.next = null;
+            this.tailIdx = this.chunkSize;
+            this.releaseChunk(emptied);
+        }
+        this.recenterIfEmpty();
+        return val;
+    }
+
+    @Override
+    public boolean enqueue(E e) {
+        UnrolledLinkedDeque.this.addFront(e);
+        return true;
+    }
+
+    @Override
+    public E dequeue() {
+        return UnrolledLinkedDeque.this.removeBack();
+    }
+
+    @Override
+    public boolean push(E e) {
+        UnrolledLinkedDeque.this.addBack(e);
+        return true;
+    }
+
+    @Override
+    public E pop() {
+        return UnrolledLinkedDeque.this.removeBack();
+    }
+
+    @Override
+    public E peek() {
+        return this.peekBack();
+    }
+
+    @Override
+    public E peekFront() {
+        if (this.size == 0) {
+            return null;
+        }
+        return this.head.items[this.headIdx];
+    }
+
+    @Override
+    public E peekBack() {
+        if (this.size == 0) {
+            return null;
+        }
+        return this.tail.items[this.tailIdx - 1];
+    }
+
+    public class UnrolledLinkedDequeIterator implements Iterator<E> {
+        private Chunk<E> chunk;
+        private int idx;
+        private int remaining;
+
+        public UnrolledLinkedDequeIterator() {
+            this.chunk = UnrolledLinkedDeque.this.head;
+            this.idx = UnrolledLinkedDeque.this.headIdx;
+            this.remaining = UnrolledLinkedDeque.this.size;
+        }
+
+        public boolean hasNext() {
+            return this.remaining > 0;
+        }
+
+        public E next() {
+            if (this.idx == UnrolledLinkedDeque.this.chunkSize) {
+                this.chunk = this.chunk.next;
+                this.idx = 0;
+            }
+            this.remaining--;
+            return this.chunk.items[this.idx++];
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new UnrolledLinkedDequeIterator();
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    public String toString() {
+        if (this.size == 0) {
+            return "[]";
+        }
+        StringBuilder result = new StringBuilder("[");
+        for (E item : this) {
+            result.append(item).append(", ");
+        }
+        result.setLength(result.length() - 2);
+        return result.append("]").toString();
+    }
+}
@@ -0,0 +1,225 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.interfaces.IDeque;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+
+/**
+ * Chase-Lev work-stealing deque. One owner thread adds and removes at the back without locks (addBack,
+ * removeBack, peekBack); any number of thief threads take from the front with removeFront, racing each
+ * other and the owner for the last element through a CAS on the top index. The owner grows the circular
+ * array when it fills; thieves still holding the old array only read slots that were copied unchanged.
+ * Only the owner may add, so addFront is unsupported and add goes to the back.
+ *
+ * Thieves never write to the array. By the time a thief has won its slot, the owner may already have reused
+ * it for a new element, possibly the very same reference, so clearing it would lose that element. A stolen
+ * slot instead keeps its reference until the owner overwrites it, or until the array grows and only the live
+ * range is copied.
+ */
+public class WorkStealingDeque<E> implements IDeque<E> {
+    private static final int default_capacity = 32;
+    private static final VarHandle TOP;
+    private static final VarHandle BOTTOM;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private volatile Object[] data;
+    private long top;
+    private long bottom;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(WorkStealingDeque.class, "top", long.class);
+            BOTTOM = lookup.findVarHandle(WorkStealingDeque.class, "bottom", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public WorkStealingDeque() {
+        this(default_capacity);
+    }
+
+    public WorkStealingDeque(int initialCapacity) {
+        int capacity = 1;
+        while (capacity < initialCapacity) {
+            capacity *= 2;
+        }
+        this.data = new Object[capacity];
+    }
+
+    // owner only: copies the live range [t, b) into an array twice the size
+    private Object[] grow(Object[] old, long t, long b) {
+        Object[] bigger = new Object[old.length * 2];
+        for (long i = t; i < b; i++) {
+            bigger[(int) i & (bigger.length - 1)] = old[(int) i & (old.length - 1)];
+        }
+        this.data = bigger;
+        return bigger;
+    }
+
+    /**
+     * Not supported: only the owner adds, and only at the back.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addFront(E e) {
+        throw new UnsupportedOperationException("work-stealing deques only accept new elements at the back");
+    }
+
+    /**
+     * Adds an element at the back. Must only be called from the owner thread.
+     */
+    @Override
+    public void addBack(E e) {
+        long b = this.bottom;
+        long t = (long) TOP.getAcquire(this);
+        Object[] a = this.data;
+        if (b - t >= a.length) {
+            a = this.grow(a, t, b);
+        }
+        SLOT.setRelease(a, (int) b & (a.length - 1), e);
+        BOTTOM.setRelease(this, b + 1);
+    }
+
+    @Override
+    public void add(E e) {
+        this.addBack(e);
+    }
+
+    /**
+     * Removes the element at the back. Must only be called from the owner thread.
+     */
+    @Override
+    public E removeBack() {
+        long b = this.bottom - 1;
+        Object[] a = this.data;
+        BOTTOM.setVolatile(this, b);
+        long t = (long) TOP.getVolatile(this);
+        if (t > b) {
+            BOTTOM.setRelease(this, b + 1);
+            return null;
+        }
+        int slot = (int) b & (a.length - 1);
+        E e = (E) a[slot];
+        if (t == b) {
+            // last element: race the thieves for it
+            boolean won = TOP.compareAndSet(this, t, t + 1);
+            BOTTOM.setRelease(this, b + 1);
+            if (!won) {
+                return null;
+            }
+        }
+        SLOT.setRelease(a, slot, null);
+        return e;
+    }
+
+    /**
+     * Steals the element at the front. Safe from any thread; retries while it loses races with other thieves.
+     */
+    @Override
+    public E removeFront() {
+        while (true) {
+            long t = (long) TOP.getAcquire(this);
+            VarHandle.fullFence();
+            long b = (long) BOTTOM.getAcquire(this);
+            if (t >= b) {
+                return null;
+            }
+            Object[] a = this.data;
+            int slot = (int) t & (a.length - 1);
+            E e = (E) SLOT.getAcquire(a, slot);
+            if (TOP.compareAndSet(this, t, t + 1)) {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Returns the element at the back. Must only be called from the owner thread.
+     */
+    @Override
+    public E peek() {
+        return this.peekBack();
+    }
+
+    /**
+     * Returns the element at the front. Safe from any thread, but it may already have been taken.
+     */
+    @Override
+    public E peekFront() {
+        long t = (long) TOP.getAcquire(this);
+        long b = (long) BOTTOM.getAcquire(this);
+        if (t >= b) {
+            return null;
+        }
+        Object[] a = this.data;
+        return (E) SLOT.getAcquire(a, (int) t & (a.length - 1));
+    }
+
+    /**
+     * Returns the element at the back. Must only be called from the owner thread.
+     */
+    @Override
+    public E peekBack() {
+        long b = this.bottom;
+        if ((long) TOP.getAcquire(this) >= b) {
+            return null;
+        }
+        Object[] a = this.data;
+        return (E) a[(int) (b - 1) & (a.length - 1)];
+    }
+
+    /**
+     * Calculates the size of the deque. Safe from any thread, but only a snapshot while thieves are active.
+     */
+    @Override
+    public int size() {
+        long b = (long) BOTTOM.getAcquire(this);
+        long t = (long) TOP.getAcquire(this);
+        return (int) Math.max(0, b - t);
+    }
+
+    public class WorkStealingDequeIterator implements Iterator<E> {
+        private final Object[] a;
+        private long idx;
+        private final long end;
+
+        public WorkStealingDequeIterator() {
+            this.a = WorkStealingDeque.this.data;
+            this.idx = (long) TOP.getAcquire(WorkStealingDeque.this);
+            this.end = WorkStealingDeque.this.bottom;
+        }
+
+        public boolean hasNext() {
+            return this.idx < this.end;
+        }
+
+        public E next() {
+            return (E) SLOT.getAcquire(this.a, (int) this.idx++ & (this.a.length - 1));
+        }
+    }
+
+    /**
+     * Iterates front to back over the elements present when the iterator is created. Must only be used
+     * from the owner thread while no thieves are active.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new WorkStealingDequeIterator();
+    }
+
+    public String toString() {
+        if (this.size() == 0) {
+            return "[]";
+        }
+        StringBuilder result = new StringBuilder("[");
+        for (E item : this) {
+            result.append(item).append(", ");
+        }
+        result.setLength(result.length() - 2);
+        return result.append("]").toString();
+    }
+}
@@ -0,0 +1,29 @@
+package edu.caltech.cs2.interfaces;
+
+/**
+ * This interface represents a policy deciding how a resizable array-backed data structure grows and shrinks.
+ */
+public interface ICapacityPolicy {
+
+  /**
+   * Chooses a new capacity when the current one is too small.
+   * @param capacity Current capacity
+   * @param required Minimum capacity needed to hold the next element
+   * @return New capacity, at least required unless that would exceed maxCapacity()
+   */
+  public int grow(int capacity, int required);
+
+  /**
+   * Chooses a new capacity after elements have been removed.
+   * @param capacity Current capacity
+   * @param size Number of elements currently stored
+   * @return New capacity, or capacity itself to keep the current array
+   */
+  public int shrink(int capacity, int size);
+
+  /**
+   * Returns the hard upper bound on capacity.
+   * @return Maximum capacity the data structure may grow to
+   */
+  public int maxCapacity();
+}
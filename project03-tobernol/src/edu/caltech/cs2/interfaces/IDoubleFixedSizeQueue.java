@@ -0,0 +1,106 @@
+package edu.caltech.cs2.interfaces;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * This interface represents a fixed-size queue of primitive doubles - an unboxed variant of IFixedSizeQueue.
+ */
+public interface IDoubleFixedSizeQueue {
+
+  /**
+   * Adds an element to the back of the queue.
+   * @param e Element to add
+   * @return True if successful, false otherwise (i.e. queue is full)
+   */
+  public boolean enqueue(double e);
+
+  /**
+   * Removes and returns the element at the front of the queue.
+   * @return Element at front of queue
+   * @throws IllegalStateException if the queue is empty
+   */
+  public double dequeue();
+
+  /**
+   * Returns (but does not remove) the element at the front of the queue.
+   * @return Element at front of queue
+   * @throws IllegalStateException if the queue is empty
+   */
+  public double peek();
+
+  /**
+   * Returns (but does not remove) the element a given number of positions behind the front of the queue.
+   * @param index Number of positions behind the front, where 0 is the front
+   * @return Element at that position
+   * @throws IndexOutOfBoundsException if index is negative or not less than size()
+   */
+  public double get(int index);
+
+  /**
+   * Adds a run of elements to the back of the queue, in order, stopping early if the queue fills.
+   * @param src Array holding the elements to add
+   * @param off Index in src of the first element to add
+   * @param len Number of elements to add
+   * @return Number of elements actually added
+   * @throws IllegalArgumentException if len is negative
+   */
+  public int enqueueAll(double[] src, int off, int len);
+
+  /**
+   * Removes elements from the front of the queue into an array, in order, starting at dst[0].
+   * @param dst Array to receive the elements
+   * @param max Maximum number of elements to remove
+   * @return Number of elements actually removed
+   * @throws IllegalArgumentException if max is negative
+   */
+  public int drainTo(double[] dst, int max);
+
+  /**
+   * Enqueues values from a supplier until the queue is full.
+   * @param supplier Source of the elements to add
+   * @return Number of elements added
+   */
+  default public int fill(DoubleSupplier supplier) {
+    return this.fill(supplier, this.capacity() - this.size());
+  }
+
+  /**
+   * Enqueues up to max values from a supplier, stopping early if the queue fills.
+   * @param supplier Source of the elements to add
+   * @param max Maximum number of elements to add
+   * @return Number of elements added
+   * @throws IllegalArgumentException if max is negative
+   */
+  public int fill(DoubleSupplier supplier, int max);
+
+  /**
+   * Removes all elements from the queue.
+   */
+  public void clear();
+
+  /**
+   * Calculates the size of the queue.
+   * @return Number of elements in the queue
+   */
+  public int size();
+
+  /**
+   * Checks whether the queue contains no elements.
+   * @return True if no elements are contained, false otherwise
+   */
+  default public boolean isEmpty() {
+    return this.size() == 0;
+  }
+
+  /**
+   * Checks whether the fixed-size queue is full.
+   * @return True if full, false otherwise
+   */
+  public boolean isFull();
+
+  /**
+   * Calculates the maximum capacity of the queue.
+   * @return Maximum capacity of the queue
+   */
+  public int capacity();
+}
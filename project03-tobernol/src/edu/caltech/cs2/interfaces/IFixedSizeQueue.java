@@ -1,5 +1,7 @@
 package edu.caltech.cs2.interfaces;
 
+import java.util.function.Supplier;
+
 /**
  * This interface represents a fixed-size queue - a queue with a constant and finite capacity.
  * @param <E> Element type
@@ -17,4 +19,17 @@ public interface IFixedSizeQueue<E> extends IQueue<E> {
    * @return Maximum capacity of the queue
    */
   public int capacity();
+
+  /**
+   * Enqueues values from a supplier until the queue is full.
+   * @param supplier Source of the elements to add
+   * @return Number of elements added
+   */
+  default public int fill(Supplier<? extends E> supplier) {
+    int added = 0;
+    while (!this.isFull() && this.enqueue(supplier.get())) {
+      added++;
+    }
+    return added;
+  }
 }
\ No newline at end of file
@@ -24,6 +24,44 @@ public interface IQueue<E> extends Iterable<E> {
    */
   public E peek();
 
+  /**
+   * Adds a run of elements to the back of the queue, in order, stopping early if the queue fills.
+   * @param src Array holding the elements to add
+   * @param off Index in src of the first element to add
+   * @param len Number of elements to add
+   * @return Number of elements actually added
+   * @throws IllegalArgumentException if len is negative
+   */
+  default public int enqueueAll(E[] src, int off, int len) {
+    if (len < 0) {
+      throw new IllegalArgumentException("len must not be negative");
+    }
+    for (int i = 0; i < len; i++) {
+      if (!this.enqueue(src[off + i])) {
+        return i;
+      }
+    }
+    return len;
+  }
+
+  /**
+   * Removes elements from the front of the queue into an array, in order, starting at dst[0].
+   * @param dst Array to receive the elements
+   * @param max Maximum number of elements to remove
+   * @return Number of elements actually removed
+   * @throws IllegalArgumentException if max is negative
+   */
+  default public int drainTo(E[] dst, int max) {
+    if (max < 0) {
+      throw new IllegalArgumentException("max must not be negative");
+    }
+    int n = Math.min(max, this.size());
+    for (int i = 0; i < n; i++) {
+      dst[i] = this.dequeue();
+    }
+    return n;
+  }
+
   /**
    * Calculates the size of the queue.
    * @return Number of elements in the queue
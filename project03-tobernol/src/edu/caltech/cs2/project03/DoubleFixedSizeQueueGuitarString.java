@@ -0,0 +1,229 @@
+package edu.caltech.cs2.project03;
+
+import edu.caltech.cs2.datastructures.DoubleFixedSizeQueue;
+import edu.caltech.cs2.interfaces.IDoubleFixedSizeQueue;
+
+import java.util.SplittableRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Karplus-Strong guitar string whose delay line is a primitive double ring buffer,
+ * so tic() and sample() never box or allocate.
+ *
+ * The string also keeps a peak envelope: the largest magnitude written during each full pass through
+ * the delay line. Every slot is rewritten once per pass, so at the end of a pass that maximum is exactly
+ * the largest magnitude the string still holds, with no drift to correct.
+ *
+ * The delay line is allocated once for the lowest frequency the string will play; tune() only changes how
+ * many of its slots are in use, so a pooled string can be retuned without allocating.
+ *
+ * By default the delay line is ceil(samplingRate / frequency) samples long, which puts the period up to half
+ * a sample away from the one asked for; near the top of the keyboard that is a sizeable fraction of a
+ * semitone. A string built with fractional tuning instead shortens the delay line to a whole number of
+ * samples and makes up the remaining fraction with a first-order allpass filter in the feedback loop, which
+ * delays low frequencies by a fractional amount without changing the gain. The loop then has exactly the
+ * period the frequency asks for.
+ */
+public class DoubleFixedSizeQueueGuitarString {
+    private IDoubleFixedSizeQueue guitarString;
+    private static final double energyDecay = 0.996;
+    private static final int samplingRate = 44100;
+    private SplittableRandom random;
+    // built once so pluck() allocates nothing; reads this.random on each call, since seed() replaces it
+    private final DoubleSupplier noise;
+    private double peak;
+    private double passPeak;
+    private int passRemaining;
+    private int length;
+    // allpass coefficient and state; only used with fractional tuning
+    private final boolean fractional;
+    private double allpass;
+    private double allpassIn;
+    private double allpassOut;
+
+    public DoubleFixedSizeQueueGuitarString(double frequency) {
+        this(frequency, frequency, false);
+    }
+
+    public DoubleFixedSizeQueueGuitarString(double frequency, double lowestFrequency) {
+        this(frequency, lowestFrequency, false);
+    }
+
+    /**
+     * Creates a string tuned to frequency whose delay line is long enough to be retuned down to lowestFrequency.
+     * @param frequency Initial frequency in Hz
+     * @param lowestFrequency Lowest frequency tune() will accept
+     * @param fractional Whether to tune the fraction of a sample left over by the delay line with an allpass filter
+     */
+    public DoubleFixedSizeQueueGuitarString(double frequency, double lowestFrequency, boolean fractional) {
+        this.guitarString = new DoubleFixedSizeQueue(spacing(lowestFrequency));
+        this.random = new SplittableRandom();
+        this.noise = () -> this.random.nextDouble() - 0.5;
+        this.fractional = fractional;
+        this.tune(frequency);
+    }
+
+    private static int spacing(double frequency) {
+        return (int)Math.ceil(samplingRate / frequency);
+    }
+
+    /**
+     * Returns the delay line length a string tuned to frequency uses, which is also how many samples an
+     * excitation that plucks it needs.
+     * @param frequency Frequency in Hz
+     * @param fractional Whether the string uses fractional tuning
+     * @return Number of samples in the delay line
+     */
+    public static int lengthFor(double frequency, boolean fractional) {
+        if (!fractional) {
+            return spacing(frequency);
+        }
+        // averaging with the next sample shortens the loop by half a sample; keep the allpass delay in
+        // [0.1, 1.1), where it is well behaved
+        return Math.max(1, (int)Math.floor(samplingRate / frequency + 0.5 - 0.1));
+    }
+
+    /**
+     * Retunes the string, reusing its delay line, and leaves it silent.
+     * @param frequency New frequency in Hz
+     * @throws IllegalArgumentException if the frequency is below the lowest one the delay line can hold
+     */
+    public void tune(double frequency) {
+        int spacing = spacing(frequency);
+        if (spacing > this.guitarString.capacity()) {
+            throw new IllegalArgumentException("frequency " + frequency + " Hz is below this string's range");
+        }
+        if (this.fractional) {
+            spacing = lengthFor(frequency, true);
+            double delay = samplingRate / frequency + 0.5 - spacing;
+            // coefficient whose phase delay is exactly delay at the fundamental, not just at low frequencies
+            double omega = 2 * Math.PI * frequency / samplingRate;
+            this.allpass = Math.sin(omega * (1 - delay) / 2) / Math.sin(omega * (1 + delay) / 2);
+        }
+        this.length = spacing;
+        this.silence();
+    }
+
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Replaces the delay line with white noise, written in one pass straight into the queue's array. Each
+     * string owns its generator, so plucks neither contend on shared state nor pay for atomic updates.
+     */
+    public void pluck() {
+        this.guitarString.clear();
+        this.guitarString.fill(this.noise, this.length);
+        this.restartEnvelope(0.5);
+    }
+
+    /**
+     * Plucks the string with a prepared excitation, copying its first length() samples into the delay line.
+     * @param excitation Samples to load, such as a buffer from an ExcitationCache
+     * @throws IllegalArgumentException if the excitation is shorter than the delay line
+     */
+    public void pluck(double[] excitation) {
+        if (excitation.length < this.length) {
+            throw new IllegalArgumentException("excitation has " + excitation.length
+                    + " samples but the string needs " + this.length);
+        }
+        this.guitarString.clear();
+        this.guitarString.enqueueAll(excitation, 0, this.length);
+        this.restartEnvelope(0.5);
+    }
+
+    /**
+     * Restarts this string's noise generator, so the plucks that follow are reproducible.
+     * @param seed Seed for the generator
+     */
+    public void seed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Zeroes the delay line, so the string is exactly silent rather than decaying towards silence.
+     */
+    public void silence() {
+        this.guitarString.clear();
+        this.guitarString.fill(() -> 0.0, this.length);
+        this.restartEnvelope(0.0);
+    }
+
+    /**
+     * Returns an upper bound on the magnitude of every value currently in the delay line.
+     * @return Peak amplitude as of the last completed pass through the delay line
+     */
+    public double amplitude() {
+        return this.peak;
+    }
+
+    private void restartEnvelope(double peak) {
+        this.allpassIn = 0.0;
+        this.allpassOut = 0.0;
+        this.peak = peak;
+        this.passPeak = 0.0;
+        this.passRemaining = this.length();
+    }
+
+    // one Karplus-Strong step; returns the sample that left the delay line
+    private double step(IDoubleFixedSizeQueue queue) {
+        double val1 = queue.dequeue();
+        double val2 = queue.peek();
+        double next = ((val1 + val2) / 2) * energyDecay;
+        if (this.fractional) {
+            double out = this.allpass * (next - this.allpassOut) + this.allpassIn;
+            this.allpassIn = next;
+            this.allpassOut = out;
+            next = out;
+        }
+        queue.enqueue(next);
+        this.passPeak = Math.max(this.passPeak, Math.abs(next));
+        if (--this.passRemaining == 0) {
+            this.peak = this.passPeak;
+            this.passPeak = 0.0;
+            this.passRemaining = queue.size();
+        }
+        return val1;
+    }
+
+    public void tic() {
+        this.step(this.guitarString);
+    }
+
+    public double sample() {
+        return this.guitarString.peek();
+    }
+
+    /**
+     * Adds this string's next len samples into block[off..off + len), advancing the string one tic() per sample.
+     * @param block Buffer to mix into
+     * @param off Index of the first sample to write
+     * @param len Number of samples to render
+     */
+    public void render(double[] block, int off, int len) {
+        IDoubleFixedSizeQueue queue = this.guitarString;
+        for (int i = off; i < off + len; i++) {
+            block[i] += this.step(queue);
+        }
+    }
+
+    /**
+     * Adds this string's next len samples into a buffer of interleaved frames, once per channel with that
+     * channel's gain: sample i is added to frames[off + i * gains.length + c] times gains[c].
+     * @param frames Buffer of interleaved frames to mix into
+     * @param off Index of the first sample of the first frame to write
+     * @param len Number of frames to render
+     * @param gains Gain for each channel
+     */
+    public void render(double[] frames, int off, int len, double[] gains) {
+        IDoubleFixedSizeQueue queue = this.guitarString;
+        int channels = gains.length;
+        for (int f = off; f < off + len * channels; f += channels) {
+            double sample = this.step(queue);
+            for (int c = 0; c < channels; c++) {
+                frames[f + c] += sample * gains[c];
+            }
+        }
+    }
+}
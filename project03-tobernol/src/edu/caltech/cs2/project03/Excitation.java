@@ -0,0 +1,58 @@
+package edu.caltech.cs2.project03;
+
+import java.util.SplittableRandom;
+
+/**
+ * Shapes of the burst a pluck writes into a delay line. Every shape is a pure function of its length and
+ * seed, so a generated buffer can be cached and reused for later plucks.
+ */
+public enum Excitation {
+  /**
+   * Uniform white noise in [-0.5, 0.5): the classic Karplus-Strong pluck, and exactly what
+   * DoubleFixedSizeQueueGuitarString.pluck() writes after seed(seed).
+   */
+  NOISE {
+    @Override
+    void generate(double[] buffer, SplittableRandom random) {
+      for (int i = 0; i < buffer.length; i++) {
+        buffer[i] = random.nextDouble() - 0.5;
+      }
+    }
+  },
+
+  /**
+   * Noise through a one-pole lowpass, scaled back to a peak of 0.5: a duller pluck, as if with the thumb.
+   */
+  SOFT {
+    @Override
+    void generate(double[] buffer, SplittableRandom random) {
+      double y = 0;
+      double peak = 0;
+      for (int i = 0; i < buffer.length; i++) {
+        y += 0.3 * ((random.nextDouble() - 0.5) - y);
+        buffer[i] = y;
+        peak = Math.max(peak, Math.abs(y));
+      }
+      if (peak > 0) {
+        double scale = 0.5 / peak;
+        for (int i = 0; i < buffer.length; i++) {
+          buffer[i] *= scale;
+        }
+      }
+    }
+  };
+
+  abstract void generate(double[] buffer, SplittableRandom random);
+
+  /**
+   * Generates a new excitation buffer.
+   * @param length Number of samples, normally the delay line length of the string to pluck
+   * @param seed Seed for the noise
+   * @return The generated samples
+   */
+  public double[] create(int length, long seed) {
+    double[] buffer = new double[length];
+    this.generate(buffer, new SplittableRandom(seed));
+    return buffer;
+  }
+}
@@ -0,0 +1,151 @@
+package edu.caltech.cs2.project03;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prepared excitation buffers keyed by (length, shape, seed), so plucking a note that was played before is a
+ * single bulk copy with no noise generation or filtering. The cache holds at most budgetBytes of samples and
+ * evicts the least recently used buffers to stay within it. Returned buffers are shared and must not be
+ * modified.
+ *
+ * prewarm() generates buffers ahead of time, so that on the real-time path get() only ever hits. A hit looks
+ * the key up through a reused probe and allocates nothing; only a miss builds a key to store.
+ */
+public class ExcitationCache {
+  private final LinkedHashMap<Key, double[]> buffers;
+  private final long budgetBytes;
+  // mutated for every lookup; never stored in the map
+  private final Key probe;
+  private long bytes;
+  private long hits;
+  private long misses;
+
+  public ExcitationCache(long budgetBytes) {
+    if (budgetBytes < 0) {
+      throw new IllegalArgumentException("budget must not be negative");
+    }
+    this.buffers = new LinkedHashMap<>(16, 0.75f, true);
+    this.budgetBytes = budgetBytes;
+    this.probe = new Key(0, null, 0);
+    this.bytes = 0;
+    this.hits = 0;
+    this.misses = 0;
+  }
+
+  /**
+   * Returns the excitation for the given key, generating and caching it first if it is not cached.
+   * @param length Number of samples
+   * @param shape Shape of the excitation
+   * @param seed Seed for the noise
+   * @return The cached samples, which must not be modified
+   */
+  public double[] get(int length, Excitation shape, long seed) {
+    double[] buffer = this.buffers.get(this.probe.set(length, shape, seed));
+    if (buffer != null) {
+      this.hits++;
+      return buffer;
+    }
+    this.misses++;
+    return this.create(length, shape, seed);
+  }
+
+  /**
+   * Generates and caches the excitations for every length with seeds 0 to variants - 1, which are the ones a
+   * VoicePool plucks with. Buffers already cached are kept, and neither kind counts as a hit or a miss. If
+   * they do not all fit in the budget, the ones generated first are evicted.
+   * @param lengths Numbers of samples, one for each string length that will be plucked
+   * @param shape Shape of the excitations
+   * @param variants Number of seeds for each length
+   * @throws IllegalArgumentException if variants is negative
+   */
+  public void prewarm(int[] lengths, Excitation shape, int variants) {
+    if (variants < 0) {
+      throw new IllegalArgumentException("variants must not be negative");
+    }
+    for (int length : lengths) {
+      for (int seed = 0; seed < variants; seed++) {
+        if (!this.buffers.containsKey(this.probe.set(length, shape, seed))) {
+          this.create(length, shape, seed);
+        }
+      }
+    }
+  }
+
+  // generates a buffer and caches it under a new key, if it fits in the budget at all
+  private double[] create(int length, Excitation shape, long seed) {
+    double[] buffer = shape.create(length, seed);
+    long size = sizeOf(buffer);
+    if (size <= this.budgetBytes) {
+      this.buffers.put(new Key(length, shape, seed), buffer);
+      this.bytes += size;
+      this.evict();
+    }
+    return buffer;
+  }
+
+  // drops least recently used buffers until the cache fits its budget
+  private void evict() {
+    Iterator<Map.Entry<Key, double[]>> entries = this.buffers.entrySet().iterator();
+    while (this.bytes > this.budgetBytes && entries.hasNext()) {
+      this.bytes -= sizeOf(entries.next().getValue());
+      entries.remove();
+    }
+  }
+
+  private static long sizeOf(double[] buffer) {
+    return (long) buffer.length * Double.BYTES;
+  }
+
+  public int size() {
+    return this.buffers.size();
+  }
+
+  /**
+   * Returns the number of bytes of samples currently cached.
+   */
+  public long bytes() {
+    return this.bytes;
+  }
+
+  public long hits() {
+    return this.hits;
+  }
+
+  public long misses() {
+    return this.misses;
+  }
+
+  // mutable only so the probe can be reused; a key in the map is never changed
+  private static final class Key {
+    private int length;
+    private Excitation shape;
+    private long seed;
+
+    Key(int length, Excitation shape, long seed) {
+      this.set(length, shape, seed);
+    }
+
+    Key set(int length, Excitation shape, long seed) {
+      this.length = length;
+      this.shape = shape;
+      this.seed = seed;
+      return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return this.length == other.length && this.shape == other.shape && this.seed == other.seed;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * this.length + this.shape.hashCode()) + Long.hashCode(this.seed);
+    }
+  }
+}
@@ -4,43 +4,102 @@ import edu.caltech.cs2.project03.libraries.StdAudio;
 import edu.caltech.cs2.project03.libraries.StdDraw;
 import edu.caltech.cs2.datastructures.*;
 
+import java.util.Arrays;
+
 public class GuitarHero {
   private static final String KEYBOARD = "q2we4r5ty7u8i9op-[=zxdcfvgbnjmk,.;/' ";
   private static final double CONCERT_A = 440.0;
+  private static final int DEFAULT_BLOCK_SIZE = 256;
+  // strings quieter than one 16-bit step are inaudible once quantized, so they stop being rendered
+  private static final double SILENCE_THRESHOLD = 1.0 / 32768;
+  private static final int POLYPHONY = 16;
+  // a few excitations per note keep repeated notes lively; the whole keyboard needs well under 4 MB of them
+  private static final int EXCITATION_VARIANTS = 4;
+  private static final long EXCITATION_BUDGET = 4 << 20;
+  // how far towards the outer channels the ends of the keyboard are panned
+  private static final double STEREO_WIDTH = 0.8;
 
-  public static void main(String[] args) {
+  // frequency of the string a key plays, or NaN if the key is not on the keyboard
+  static double frequencyOf(char key) {
+    int idx = KEYBOARD.indexOf(key);
+    return idx == -1 ? Double.NaN : CONCERT_A * Math.pow(2, (idx - 24.0) / 12.0);
+  }
+
+  // pan position of a key: low notes to the left, high notes to the right, as at a piano
+  static double panOf(char key) {
+    int idx = KEYBOARD.indexOf(key);
+    return idx == -1 ? 0.0 : STEREO_WIDTH * (2.0 * idx / (KEYBOARD.length() - 1) - 1);
+  }
 
-    // Create three arrays of strings
-    CircularArrayFixedSizeQueueGuitarString[] strings = new CircularArrayFixedSizeQueueGuitarString[KEYBOARD.length()];
+  // how the sounding strings are rendered
+  enum RenderMode {
+    // one string after another on the calling thread
+    SERIAL,
+    // across all cores, summed in a tree; may differ from SERIAL in the last bits
+    PARALLEL,
+    // across all cores, bit-identical to SERIAL
+    DETERMINISTIC;
 
-    // Populate string arrays with respective string types
-    for (int i = 0; i < KEYBOARD.length(); i++) {
-      strings[i] = new CircularArrayFixedSizeQueueGuitarString(CONCERT_A * Math.pow(2, (i - 24.0) / 12.0));
+    // the renderer VoicePool is given for this mode, or null to render serially
+    ParallelRenderer renderer() {
+      return this == SERIAL ? null : new ParallelRenderer(this == DETERMINISTIC);
     }
 
-    while (true) {
-      // check if the user has typed a key; if so, process it
-      if (StdDraw.hasNextKeyTyped()) {
-        char key = StdDraw.nextKeyTyped();
-        int idx = KEYBOARD.indexOf(key);
-        if (idx != -1) {
-          strings[idx].pluck();
+    // accepts a mode name in any case
+    static RenderMode parse(String arg) {
+      for (RenderMode mode : values()) {
+        if (mode.name().equalsIgnoreCase(arg)) {
+          return mode;
         }
       }
+      throw new IllegalArgumentException("unknown render mode " + arg + "; expected one of "
+          + Arrays.toString(values()).toLowerCase());
+    }
+  }
 
-      // compute the superposition of samples
-      double sample = 0.0;
-      for (int i = 0; i < strings.length; i++) {
-        sample += strings[i].sample();
-      }
+  // the voices GuitarHero plays the keyboard with
+  static VoicePool createVoices(RenderMode mode) {
+    VoicePool voices = new VoicePool(POLYPHONY, frequencyOf(KEYBOARD.charAt(0)), SILENCE_THRESHOLD,
+            mode.renderer());
+    voices.useExcitations(new ExcitationCache(EXCITATION_BUDGET), Excitation.NOISE, EXCITATION_VARIANTS);
+    // every key's excitations are generated now, so no note-on has to
+    double[] frequencies = new double[KEYBOARD.length()];
+    for (int i = 0; i < frequencies.length; i++) {
+      frequencies[i] = frequencyOf(KEYBOARD.charAt(i));
+    }
+    voices.prewarmExcitations(frequencies);
+    return voices;
+  }
 
-      // play the sample on standard audio
-      StdAudio.play(sample);
+  public static void main(String[] args) {
+    // Samples rendered per pass; keys are polled once per block, so this sets the input latency
+    int blockSize = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BLOCK_SIZE;
+    // Optional second argument: serial, parallel or deterministic; see RenderMode
+    RenderMode mode = args.length > 1 ? RenderMode.parse(args[1]) : RenderMode.SERIAL;
+    // one frame per sample, with a sample for each channel standard audio plays; see StdAudio.CHANNELS_PROPERTY
+    int channels = StdAudio.settings().format().channels();
+    double[] block = new double[blockSize * channels];
 
-      // advance the simulation of each guitar string by one step
-      for (int i = 0; i < strings.length; i++) {
-        strings[i].tic();
+    // every key maps to a frequency; a fixed pool of strings plays whichever keys are sounding
+    VoicePool voices = createVoices(mode);
+
+    while (true) {
+      // process every key typed since the last block
+      while (StdDraw.hasNextKeyTyped()) {
+        char key = StdDraw.nextKeyTyped();
+        double frequency = frequencyOf(key);
+        if (!Double.isNaN(frequency)) {
+          voices.noteOn(frequency, panOf(key));
+        }
       }
+
+      // compute the superposition of samples for the whole block, one sounding string at a time,
+      // each panned straight into the interleaved frames
+      Arrays.fill(block, 0.0);
+      voices.render(block, 0, blockSize, channels);
+
+      // play the block on standard audio
+      StdAudio.play(block);
     }
   }
 }
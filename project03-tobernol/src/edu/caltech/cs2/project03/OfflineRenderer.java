@@ -0,0 +1,195 @@
+package edu.caltech.cs2.project03;
+
+import edu.caltech.cs2.project03.libraries.AudioSink;
+import edu.caltech.cs2.project03.libraries.PcmEncoder;
+import edu.caltech.cs2.project03.libraries.PcmFormat;
+import edu.caltech.cs2.project03.libraries.WavFileSink;
+
+import javax.sound.sampled.AudioInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * Plays a Score through a VoicePool as fast as the CPU allows, instead of at the pace of the sound card.
+ * Samples are rendered a block at a time, either straight into an AudioSink or only as a reader of
+ * stream() asks for them, so memory use does not grow with the length of the score. Each note starts on
+ * the exact sample of its event.
+ */
+public class OfflineRenderer {
+  // seed main() plays with unless given another, so the same score always renders the same file
+  private static final long DEFAULT_SEED = 1;
+
+  private final VoicePool voices;
+  private final int blockSize;
+
+  public OfflineRenderer(VoicePool voices, int blockSize) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("blockSize must be positive");
+    }
+    this.voices = voices;
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * Returns a stream that renders the score, and then tailSamples more samples, in the PcmFormat encoding.
+   * @param score Events to play
+   * @param tailSamples Samples to render after the last event, so the final notes can ring out
+   * @return The lazily rendered audio
+   */
+  public AudioInputStream stream(Score score, long tailSamples) {
+    long total = score.length() + tailSamples;
+    return new AudioInputStream(new RenderStream(score, total), PcmFormat.format(), total);
+  }
+
+  /**
+   * Renders the score into a sink, as fast as the sink accepts samples.
+   * @param score Events to play
+   * @param tailSeconds Seconds to render after the last event
+   * @param sink Destination for the samples; it is not closed
+   * @return Realtime factor achieved: seconds of audio rendered per second of wall-clock time
+   * @throws IOException if the sink cannot be written
+   */
+  public double render(Score score, double tailSeconds, AudioSink sink) throws IOException {
+    long start = System.nanoTime();
+    long total = score.length() + Math.round(tailSeconds * PcmFormat.SAMPLE_RATE);
+    Playback playback = new Playback(score, total);
+    double[] block = new double[this.blockSize];
+    int n;
+    while ((n = playback.next(block)) > 0) {
+      sink.write(block, 0, n);
+    }
+    // a score short enough to render within one clock tick still takes some time
+    double elapsed = Math.max(1, System.nanoTime() - start) / 1e9;
+    return total / (double) PcmFormat.SAMPLE_RATE / elapsed;
+  }
+
+  /**
+   * Renders the score to a WAV file.
+   * @param score Events to play
+   * @param tailSeconds Seconds to render after the last event
+   * @param out File to write
+   * @return Realtime factor achieved: seconds of audio rendered per second of wall-clock time
+   * @throws IOException if the file cannot be written
+   */
+  public double render(Score score, double tailSeconds, File out) throws IOException {
+    try (WavFileSink sink = new WavFileSink(out)) {
+      return this.render(score, tailSeconds, sink);
+    }
+  }
+
+  // the position in a score: renders it block by block, starting notes on their exact samples
+  private final class Playback {
+    private final Score score;
+    private final long total;
+    private long rendered;
+    private int nextEvent;
+
+    Playback(Score score, long total) {
+      this.score = score;
+      this.total = total;
+      this.rendered = 0;
+      this.nextEvent = 0;
+    }
+
+    // overwrites the start of block with the next samples; returns how many, or 0 once the score is done
+    int next(double[] block) {
+      int n = (int) Math.min(block.length, this.total - this.rendered);
+      if (n <= 0) {
+        return 0;
+      }
+      Arrays.fill(block, 0, n, 0.0);
+      int done = 0;
+      while (done < n) {
+        int until = n;
+        while (this.nextEvent < this.score.size() && this.score.time(this.nextEvent) <= this.rendered + done) {
+          OfflineRenderer.this.voices.noteOn(this.score.frequency(this.nextEvent++));
+        }
+        if (this.nextEvent < this.score.size()) {
+          until = (int) Math.min(n, this.score.time(this.nextEvent) - this.rendered);
+        }
+        OfflineRenderer.this.voices.render(block, done, until - done);
+        done = until;
+      }
+      this.rendered += n;
+      return n;
+    }
+  }
+
+  // renders blocks on demand and hands them out as encoded bytes
+  private final class RenderStream extends InputStream {
+    private final Playback playback;
+    private final double[] block;
+    private final byte[] bytes;
+    private final ShortBuffer samples;
+    private final PcmEncoder encoder;
+    private int pos;
+    private int limit;
+
+    RenderStream(Score score, long total) {
+      this.playback = new Playback(score, total);
+      this.block = new double[OfflineRenderer.this.blockSize];
+      this.bytes = new byte[OfflineRenderer.this.blockSize * PcmFormat.BYTES_PER_SAMPLE];
+      this.samples = PcmEncoder.view(ByteBuffer.wrap(this.bytes));
+      this.encoder = new PcmEncoder();
+      this.pos = 0;
+      this.limit = 0;
+    }
+
+    // encodes the next block; false once the score is done
+    private boolean renderBlock() {
+      int n = this.playback.next(this.block);
+      this.samples.clear();
+      this.encoder.encode(this.block, 0, n, this.samples);
+      this.pos = 0;
+      this.limit = n * PcmFormat.BYTES_PER_SAMPLE;
+      return n > 0;
+    }
+
+    @Override
+    public int read() {
+      byte[] one = new byte[1];
+      return this.read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (this.pos == this.limit && !this.renderBlock()) {
+        return -1;
+      }
+      int n = Math.min(len, this.limit - this.pos);
+      System.arraycopy(this.bytes, this.pos, b, off, n);
+      this.pos += n;
+      return n;
+    }
+  }
+
+  /**
+   * Renders a score file to a WAV file and reports the realtime factor. Run with
+   * java edu.caltech.cs2.project03.OfflineRenderer score.txt out.wav [tail seconds] [block size] [seed].
+   * The voices are seeded, so rendering the same score with the same seed always writes the same file.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: OfflineRenderer <score> <out.wav> [tail seconds] [block size] [seed]");
+      System.exit(1);
+    }
+    Score score = Score.read(new File(args[0]));
+    double tailSeconds = args.length > 2 ? Double.parseDouble(args[2]) : 2.0;
+    int blockSize = args.length > 3 ? Integer.parseInt(args[3]) : 1024;
+    long seed = args.length > 4 ? Long.parseLong(args[4]) : DEFAULT_SEED;
+
+    VoicePool voices = GuitarHero.createVoices(GuitarHero.RenderMode.SERIAL);
+    voices.seed(seed);
+    OfflineRenderer renderer = new OfflineRenderer(voices, blockSize);
+    double seconds = (score.length() / (double) PcmFormat.SAMPLE_RATE) + tailSeconds;
+    double factor = renderer.render(score, tailSeconds, new File(args[1]));
+    System.out.printf("rendered %d events, %.1f s of audio, at %.1fx realtime%n", score.size(), seconds, factor);
+  }
+}
@@ -0,0 +1,211 @@
+package edu.caltech.cs2.project03;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders many guitar strings into one block on a ForkJoinPool. The strings are split into leaves of
+ * leafSize voices; each leaf renders into its own scratch block, and the scratch blocks are summed pairwise
+ * up the same tree that split them, so every combine runs in parallel with its siblings.
+ *
+ * Summing in a tree changes the order of the floating point additions, so the result can differ from
+ * rendering the strings one after another in the last bits. In deterministic mode every string renders into
+ * a block of its own instead, and the blocks are added into the output in string order, split across the
+ * pool by sample range; that performs exactly the additions of the serial path, so the output is
+ * bit-identical to it.
+ *
+ * Given a gain for every channel of every string, the strings are rendered into interleaved frames instead,
+ * and the scratch blocks hold interleaved frames too.
+ *
+ * A renderer keeps its scratch blocks between calls and must not be used by two threads at once.
+ */
+public class ParallelRenderer {
+  private static final int default_leaf_size = 8;
+  // below this many samples, a deterministic sum is not worth splitting further
+  private static final int sum_grain = 512;
+
+  private final ForkJoinPool pool;
+  private final int leafSize;
+  private final boolean deterministic;
+  private double[][] scratch;
+  private DoubleFixedSizeQueueGuitarString[] voices;
+  private double[][] gains;
+  private int count;
+  private int len;
+  // samples in len frames
+  private int width;
+
+  public ParallelRenderer(boolean deterministic) {
+    this(ForkJoinPool.commonPool(), default_leaf_size, deterministic);
+  }
+
+  /**
+   * @param pool Pool the rendering tasks run on
+   * @param leafSize Number of strings each task renders serially; ignored in deterministic mode
+   * @param deterministic Whether the output must be bit-identical to rendering the strings in order
+   */
+  public ParallelRenderer(ForkJoinPool pool, int leafSize, boolean deterministic) {
+    if (leafSize < 1) {
+      throw new IllegalArgumentException("leafSize must be positive");
+    }
+    this.pool = pool;
+    this.leafSize = deterministic ? 1 : leafSize;
+    this.deterministic = deterministic;
+    this.scratch = new double[0][];
+  }
+
+  public boolean isDeterministic() {
+    return this.deterministic;
+  }
+
+  /**
+   * Adds the next len samples of voices[0..count) into block[off..off + len), advancing each string len tics.
+   * @param voices Strings to render
+   * @param count Number of strings from the start of voices to render
+   * @param block Buffer to mix into
+   * @param off Index of the first sample to write
+   * @param len Number of samples to render
+   */
+  public void render(DoubleFixedSizeQueueGuitarString[] voices, int count, double[] block, int off, int len) {
+    this.render(voices, null, count, block, off, len);
+  }
+
+  /**
+   * Adds the next len samples of voices[0..count) into a buffer of interleaved frames, voice v scaled by
+   * gains[v][c] in channel c, advancing each string len tics.
+   * @param voices Strings to render
+   * @param gains Gain for each channel of each string, or null to render one channel at unit gain
+   * @param count Number of strings from the start of voices to render
+   * @param frames Buffer of interleaved frames to mix into
+   * @param off Index of the first sample of the first frame to write
+   * @param len Number of frames to render
+   */
+  public void render(DoubleFixedSizeQueueGuitarString[] voices, double[][] gains, int count, double[] frames,
+                     int off, int len) {
+    if (count == 0) {
+      return;
+    }
+    int width = gains == null ? len : len * gains[0].length;
+    int leaves = (count + this.leafSize - 1) / this.leafSize;
+    this.ensureScratch(leaves, width);
+    this.voices = voices;
+    this.gains = gains;
+    this.count = count;
+    this.len = len;
+    this.width = width;
+    try {
+      if (this.deterministic) {
+        this.pool.invoke(new RenderTask(0, leaves, false));
+        this.pool.invoke(new SumTask(frames, off, 0, width, leaves));
+      }
+      else {
+        this.pool.invoke(new RenderTask(0, leaves, true));
+        double[] sum = this.scratch[0];
+        for (int i = 0; i < width; i++) {
+          frames[off + i] += sum[i];
+        }
+      }
+    } finally {
+      this.voices = null;
+      this.gains = null;
+    }
+  }
+
+  private void ensureScratch(int leaves, int len) {
+    if (this.scratch.length < leaves) {
+      double[][] bigger = new double[leaves][];
+      System.arraycopy(this.scratch, 0, bigger, 0, this.scratch.length);
+      this.scratch = bigger;
+    }
+    for (int i = 0; i < leaves; i++) {
+      if (this.scratch[i] == null || this.scratch[i].length < len) {
+        this.scratch[i] = new double[len];
+      }
+    }
+  }
+
+  // renders leaves [lo, hi); when combining, their sum is left in scratch[lo]
+  private final class RenderTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int lo;
+    private final int hi;
+    private final boolean combine;
+
+    RenderTask(int lo, int hi, boolean combine) {
+      this.lo = lo;
+      this.hi = hi;
+      this.combine = combine;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.hi - this.lo == 1) {
+        this.renderLeaf();
+        return;
+      }
+      int mid = (this.lo + this.hi) >>> 1;
+      invokeAll(new RenderTask(this.lo, mid, this.combine), new RenderTask(mid, this.hi, this.combine));
+      if (this.combine) {
+        double[] left = ParallelRenderer.this.scratch[this.lo];
+        double[] right = ParallelRenderer.this.scratch[mid];
+        for (int i = 0; i < ParallelRenderer.this.width; i++) {
+          left[i] += right[i];
+        }
+      }
+    }
+
+    private void renderLeaf() {
+      double[] buffer = ParallelRenderer.this.scratch[this.lo];
+      int len = ParallelRenderer.this.len;
+      double[][] gains = ParallelRenderer.this.gains;
+      Arrays.fill(buffer, 0, ParallelRenderer.this.width, 0.0);
+      int first = this.lo * ParallelRenderer.this.leafSize;
+      int last = Math.min(first + ParallelRenderer.this.leafSize, ParallelRenderer.this.count);
+      for (int v = first; v < last; v++) {
+        if (gains == null) {
+          ParallelRenderer.this.voices[v].render(buffer, 0, len);
+        }
+        else {
+          ParallelRenderer.this.voices[v].render(buffer, 0, len, gains[v]);
+        }
+      }
+    }
+  }
+
+  // adds scratch[0..leaves) into block over scratch samples [from, to), in leaf order
+  private final class SumTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final double[] block;
+    private final int off;
+    private final int from;
+    private final int to;
+    private final int leaves;
+
+    SumTask(double[] block, int off, int from, int to, int leaves) {
+      this.block = block;
+      this.off = off;
+      this.from = from;
+      this.to = to;
+      this.leaves = leaves;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from > sum_grain) {
+        int mid = (this.from + this.to) >>> 1;
+        invokeAll(new SumTask(this.block, this.off, this.from, mid, this.leaves),
+                new SumTask(this.block, this.off, mid, this.to, this.leaves));
+        return;
+      }
+      for (int k = 0; k < this.leaves; k++) {
+        double[] buffer = ParallelRenderer.this.scratch[k];
+        for (int i = this.from; i < this.to; i++) {
+          this.block[this.off + i] += buffer[i];
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package edu.caltech.cs2.project03;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Timed note-on events, in time order, for offline rendering. Times are kept as sample indices at 44.1 kHz.
+ *
+ * The text form has one event per line: a time in seconds, one space, and a GuitarHero keyboard key, e.g.
+ * "1.25 q". The key is the single character after the space, so the space bar is written as a trailing
+ * space. Blank lines and lines starting with # are ignored.
+ */
+public class Score {
+  private static final int samplingRate = 44100;
+  private long[] times;
+  private double[] frequencies;
+  private int size;
+
+  public Score() {
+    this.times = new long[16];
+    this.frequencies = new double[16];
+    this.size = 0;
+  }
+
+  /**
+   * Appends a note-on event.
+   * @param seconds Time of the event
+   * @param frequency Frequency of the note in Hz
+   * @return This score
+   * @throws IllegalArgumentException if the event is earlier than the previous one
+   */
+  public Score add(double seconds, double frequency) {
+    long time = Math.round(seconds * samplingRate);
+    if (time < 0 || (this.size > 0 && time < this.times[this.size - 1])) {
+      throw new IllegalArgumentException("events must be added in time order");
+    }
+    if (this.size == this.times.length) {
+      this.times = Arrays.copyOf(this.times, this.size * 2);
+      this.frequencies = Arrays.copyOf(this.frequencies, this.size * 2);
+    }
+    this.times[this.size] = time;
+    this.frequencies[this.size] = frequency;
+    this.size++;
+    return this;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the sample index at which the idx-th event starts.
+   */
+  public long time(int idx) {
+    return this.times[idx];
+  }
+
+  public double frequency(int idx) {
+    return this.frequencies[idx];
+  }
+
+  /**
+   * Returns the sample index of the last event, or 0 for an empty score.
+   */
+  public long length() {
+    return this.size == 0 ? 0 : this.times[this.size - 1];
+  }
+
+  /**
+   * Reads a score in the text form described above.
+   * @param file File to read
+   * @return The score
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if a line is malformed or out of order
+   */
+  public static Score read(File file) throws IOException {
+    Score score = new Score();
+    try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+      String line;
+      int lineNumber = 0;
+      while ((line = in.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank() || line.startsWith("#")) {
+          continue;
+        }
+        int space = line.indexOf(' ');
+        if (space == -1 || line.length() != space + 2) {
+          throw new IllegalArgumentException("line " + lineNumber + " should be '<seconds> <key>': " + line);
+        }
+        double frequency = GuitarHero.frequencyOf(line.charAt(space + 1));
+        if (Double.isNaN(frequency)) {
+          throw new IllegalArgumentException("line " + lineNumber + " uses a key that is not on the keyboard: " + line);
+        }
+        score.add(Double.parseDouble(line.substring(0, space)), frequency);
+      }
+    }
+    return score;
+  }
+}
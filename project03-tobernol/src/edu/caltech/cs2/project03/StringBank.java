@@ -0,0 +1,114 @@
+package edu.caltech.cs2.project03;
+
+import java.util.SplittableRandom;
+
+/**
+ * Many Karplus-Strong strings stored structure-of-arrays style: every delay line is a slice of one
+ * contiguous double[] arena, located by a per-voice offset, length and head.
+ *
+ * A string is a full ring, so the slot a tic() dequeues from is the slot it enqueues into. Advancing a voice
+ * over a run of n samples that does not wrap therefore reads slots j and j + 1 and writes slot j, for
+ * consecutive j. Each slot is read one iteration before it is written, so the loop in advance() carries no
+ * dependency and the JIT can compile it to SIMD loads and stores; only the last slot of a ring, whose
+ * neighbour is slot 0, is handled on its own. The arithmetic is the same as
+ * DoubleFixedSizeQueueGuitarString's, so a bank voice produces bit-identical samples.
+ */
+public class StringBank {
+    private static final double energyDecay = 0.996;
+    private static final int samplingRate = 44100;
+    private final double[] arena;
+    private final int[] offset;
+    private final int[] length;
+    private final int[] head;
+    private SplittableRandom random;
+
+    public StringBank(double[] frequencies) {
+        this.offset = new int[frequencies.length];
+        this.length = new int[frequencies.length];
+        this.head = new int[frequencies.length];
+        int total = 0;
+        for (int v = 0; v < frequencies.length; v++) {
+            this.offset[v] = total;
+            this.length[v] = (int)Math.ceil(samplingRate / frequencies[v]);
+            total += this.length[v];
+        }
+        this.arena = new double[total];
+        this.random = new SplittableRandom();
+    }
+
+    public int voices() {
+        return this.length.length;
+    }
+
+    public int length(int voice) {
+        return this.length[voice];
+    }
+
+    /**
+     * Returns the index-th sample of a voice's delay line, counting from the sample played next.
+     */
+    public double get(int voice, int index) {
+        if (index < 0 || index >= this.length[voice]) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + this.length[voice]);
+        }
+        int i = this.head[voice] + index;
+        return this.arena[this.offset[voice] + (i >= this.length[voice] ? i - this.length[voice] : i)];
+    }
+
+    /**
+     * Restarts the bank's noise generator, so the plucks that follow are reproducible.
+     * @param seed Seed for the generator
+     */
+    public void seed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public void pluck(int voice) {
+        SplittableRandom random = this.random;
+        int start = this.offset[voice];
+        for (int i = start; i < start + this.length[voice]; i++) {
+            this.arena[i] = random.nextDouble() - 0.5;
+        }
+        this.head[voice] = 0;
+    }
+
+    /**
+     * Adds the next len samples of every voice into block[off..off + len), advancing each voice len tics.
+     * @param block Buffer to mix into
+     * @param off Index of the first sample to write
+     * @param len Number of samples to render
+     */
+    public void render(double[] block, int off, int len) {
+        for (int v = 0; v < this.length.length; v++) {
+            int start = this.offset[v];
+            int last = start + this.length[v] - 1;
+            int h = start + this.head[v];
+            int done = 0;
+            while (done < len) {
+                int run = Math.min(len - done, last - h);
+                this.advance(block, off + done, h, run);
+                done += run;
+                h += run;
+                if (h == last && done < len) {
+                    // the back of the ring averages with the front
+                    double val1 = this.arena[last];
+                    block[off + done] += val1;
+                    this.arena[last] = ((val1 + this.arena[start]) / 2) * energyDecay;
+                    done++;
+                    h = start;
+                }
+            }
+            this.head[v] = h - start;
+        }
+    }
+
+    // tics slots [from, from + n) of one voice, none of which is the last slot of its ring
+    private void advance(double[] block, int blockFrom, int from, int n) {
+        double[] arena = this.arena;
+        for (int i = 0; i < n; i++) {
+            double val1 = arena[from + i];
+            block[blockFrom + i] += val1;
+            arena[from + i] = ((val1 + arena[from + i + 1]) / 2) * energyDecay;
+        }
+    }
+}
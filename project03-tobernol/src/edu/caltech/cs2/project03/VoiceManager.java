@@ -0,0 +1,135 @@
+package edu.caltech.cs2.project03;
+
+/**
+ * Renders only the strings that are still sounding. A string becomes active when it is plucked and is
+ * retired, and zeroed, once its amplitude falls below the threshold, so the cost of a block scales with the
+ * number of ringing notes rather than the number of strings. Given a ParallelRenderer, the active strings are
+ * rendered on its pool, in the same order the serial path would use. Strings can also be rendered into
+ * interleaved frames, each with its own gain for every channel.
+ */
+public class VoiceManager {
+  private final DoubleFixedSizeQueueGuitarString[] strings;
+  private final double threshold;
+  private final int[] active;
+  private final boolean[] isActive;
+  private int activeCount;
+  private final ParallelRenderer renderer;
+  private final DoubleFixedSizeQueueGuitarString[] playing;
+  private final double[][] playingGains;
+
+  public VoiceManager(DoubleFixedSizeQueueGuitarString[] strings, double threshold) {
+    this(strings, threshold, null);
+  }
+
+  /**
+   * @param strings Strings to manage
+   * @param threshold Amplitude below which a string is retired
+   * @param renderer Renderer for the active strings, or null to render them on the calling thread
+   */
+  public VoiceManager(DoubleFixedSizeQueueGuitarString[] strings, double threshold, ParallelRenderer renderer) {
+    this.strings = strings;
+    this.threshold = threshold;
+    this.active = new int[strings.length];
+    this.isActive = new boolean[strings.length];
+    this.activeCount = 0;
+    this.renderer = renderer;
+    this.playing = renderer == null ? null : new DoubleFixedSizeQueueGuitarString[strings.length];
+    this.playingGains = renderer == null ? null : new double[strings.length][];
+  }
+
+  /**
+   * Plucks the string at idx and marks it active if it was not already.
+   * @param idx Index of the string to pluck
+   */
+  public void pluck(int idx) {
+    this.strings[idx].pluck();
+    this.activate(idx);
+  }
+
+  /**
+   * Plucks the string at idx with a prepared excitation and marks it active if it was not already.
+   * @param idx Index of the string to pluck
+   * @param excitation Samples to load into the string
+   */
+  public void pluck(int idx, double[] excitation) {
+    this.strings[idx].pluck(excitation);
+    this.activate(idx);
+  }
+
+  private void activate(int idx) {
+    if (!this.isActive[idx]) {
+      this.isActive[idx] = true;
+      this.active[this.activeCount++] = idx;
+    }
+  }
+
+  /**
+   * Adds the next len samples of every active string into block[off..off + len), then retires the strings
+   * that have decayed below the threshold.
+   * @param block Buffer to mix into
+   * @param off Index of the first sample to write
+   * @param len Number of samples to render
+   */
+  public void render(double[] block, int off, int len) {
+    if (this.renderer != null) {
+      for (int i = 0; i < this.activeCount; i++) {
+        this.playing[i] = this.strings[this.active[i]];
+      }
+      this.renderer.render(this.playing, this.activeCount, block, off, len);
+    }
+    else {
+      for (int i = 0; i < this.activeCount; i++) {
+        this.strings[this.active[i]].render(block, off, len);
+      }
+    }
+    this.retire();
+  }
+
+  /**
+   * Adds the next len samples of every active string into a buffer of interleaved frames, then retires the
+   * strings that have decayed below the threshold.
+   * @param frames Buffer of interleaved frames to mix into
+   * @param off Index of the first sample of the first frame to write
+   * @param len Number of frames to render
+   * @param gains Gain for each channel of each string, indexed like the strings; every row has one entry per channel
+   */
+  public void render(double[] frames, int off, int len, double[][] gains) {
+    if (this.renderer != null) {
+      for (int i = 0; i < this.activeCount; i++) {
+        this.playing[i] = this.strings[this.active[i]];
+        this.playingGains[i] = gains[this.active[i]];
+      }
+      this.renderer.render(this.playing, this.playingGains, this.activeCount, frames, off, len);
+    }
+    else {
+      for (int i = 0; i < this.activeCount; i++) {
+        this.strings[this.active[i]].render(frames, off, len, gains[this.active[i]]);
+      }
+    }
+    this.retire();
+  }
+
+  private void retire() {
+    int i = 0;
+    while (i < this.activeCount) {
+      int idx = this.active[i];
+      DoubleFixedSizeQueueGuitarString string = this.strings[idx];
+      if (string.amplitude() < this.threshold) {
+        string.silence();
+        this.isActive[idx] = false;
+        this.active[i] = this.active[--this.activeCount];
+      }
+      else {
+        i++;
+      }
+    }
+  }
+
+  public int activeCount() {
+    return this.activeCount;
+  }
+
+  public boolean isActive(int idx) {
+    return this.isActive[idx];
+  }
+}
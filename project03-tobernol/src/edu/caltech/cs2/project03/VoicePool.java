@@ -0,0 +1,231 @@
+package edu.caltech.cs2.project03;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Fixed set of guitar strings shared by any number of notes. Each note-on retunes and plucks a free string;
+ * when every string is sounding, the quietest one is stolen, the oldest winning ties. The strings are
+ * allocated once, so per-sample work is bounded by the polyphony rather than the number of keys. Pooled
+ * strings use fractional tuning, so every note is in tune however high it is.
+ *
+ * Each note also has a pan position. Rendered into more than one channel, a voice is placed between the two
+ * channels nearest its position with equal-power gains, so it sounds equally loud wherever it is.
+ */
+public class VoicePool {
+  private final DoubleFixedSizeQueueGuitarString[] strings;
+  private final VoiceManager voices;
+  private final double lowestFrequency;
+  private final double[] notes;
+  private final double[] pans;
+  private double[][] gains;
+  private final long[] startedAt;
+  private long noteCount;
+  private ExcitationCache excitations;
+  private Excitation shape;
+  private int variants;
+  private SplittableRandom variantRandom;
+
+  /**
+   * @param polyphony Maximum number of notes that can sound at once
+   * @param lowestFrequency Lowest frequency a note may have, which sets the size of every delay line
+   * @param threshold Amplitude below which a voice is considered silent and freed
+   */
+  public VoicePool(int polyphony, double lowestFrequency, double threshold) {
+    this(polyphony, lowestFrequency, threshold, null);
+  }
+
+  /**
+   * @param polyphony Maximum number of notes that can sound at once
+   * @param lowestFrequency Lowest frequency a note may have, which sets the size of every delay line
+   * @param threshold Amplitude below which a voice is considered silent and freed
+   * @param renderer Renderer for the sounding voices, or null to render them on the calling thread
+   */
+  public VoicePool(int polyphony, double lowestFrequency, double threshold, ParallelRenderer renderer) {
+    if (polyphony < 1) {
+      throw new IllegalArgumentException("polyphony must be positive");
+    }
+    this.strings = new DoubleFixedSizeQueueGuitarString[polyphony];
+    for (int i = 0; i < polyphony; i++) {
+      this.strings[i] = new DoubleFixedSizeQueueGuitarString(lowestFrequency, lowestFrequency, true);
+    }
+    this.voices = new VoiceManager(this.strings, threshold, renderer);
+    this.lowestFrequency = lowestFrequency;
+    this.notes = new double[polyphony];
+    this.pans = new double[polyphony];
+    this.gains = new double[polyphony][0];
+    this.startedAt = new long[polyphony];
+    this.noteCount = 0;
+    this.excitations = null;
+    this.variantRandom = new SplittableRandom();
+  }
+
+  /**
+   * Plucks notes with prepared excitations from a cache instead of generating noise on every note-on.
+   * Each note picks one of a fixed number of seeds at random, so a repeated pitch does not always sound alike.
+   * @param excitations Cache to take excitations from, or null to generate fresh noise for every note
+   * @param shape Shape of the excitations
+   * @param variants Number of seeds to choose from
+   */
+  public void useExcitations(ExcitationCache excitations, Excitation shape, int variants) {
+    if (excitations != null && variants < 1) {
+      throw new IllegalArgumentException("variants must be positive");
+    }
+    this.excitations = excitations;
+    this.shape = shape;
+    this.variants = variants;
+  }
+
+  /**
+   * Generates the excitations for every variant of the given notes ahead of time, so that playing them takes
+   * prepared buffers from the cache instead of generating noise on the note-on. Does nothing if the pool
+   * generates fresh noise for every note.
+   * @param frequencies Frequencies of the notes that will be played, in Hz
+   * @throws IllegalArgumentException if a frequency is below the pool's lowest frequency
+   */
+  public void prewarmExcitations(double... frequencies) {
+    int[] lengths = new int[frequencies.length];
+    for (int i = 0; i < frequencies.length; i++) {
+      if (frequencies[i] < this.lowestFrequency) {
+        throw new IllegalArgumentException("frequency " + frequencies[i] + " Hz is below this pool's range");
+      }
+      // pooled strings use fractional tuning
+      lengths[i] = DoubleFixedSizeQueueGuitarString.lengthFor(frequencies[i], true);
+    }
+    if (this.excitations != null) {
+      this.excitations.prewarm(lengths, this.shape, this.variants);
+    }
+  }
+
+  /**
+   * Starts a note in the center. A voice already sounding the same frequency is re-plucked rather than doubled.
+   * @param frequency Frequency of the note in Hz
+   * @return Index of the voice that plays the note
+   * @throws IllegalArgumentException if the frequency is below the pool's lowest frequency
+   */
+  public int noteOn(double frequency) {
+    return this.noteOn(frequency, 0.0);
+  }
+
+  /**
+   * Starts a note at a pan position. A voice already sounding the same frequency is re-plucked, and moved to
+   * the new position, rather than doubled.
+   * @param frequency Frequency of the note in Hz
+   * @param pan Position from -1 (the first channel) to +1 (the last)
+   * @return Index of the voice that plays the note
+   * @throws IllegalArgumentException if the frequency is below the pool's lowest frequency or pan is out of range
+   */
+  public int noteOn(double frequency, double pan) {
+    if (frequency < this.lowestFrequency) {
+      throw new IllegalArgumentException("frequency " + frequency + " Hz is below this pool's range");
+    }
+    if (!(pan >= -1 && pan <= 1)) {
+      throw new IllegalArgumentException("pan " + pan + " is outside [-1, 1]");
+    }
+    int voice = this.allocate(frequency);
+    if (this.notes[voice] != frequency) {
+      this.strings[voice].tune(frequency);
+      this.notes[voice] = frequency;
+    }
+    this.startedAt[voice] = this.noteCount++;
+    this.pans[voice] = pan;
+    if (this.excitations == null) {
+      this.voices.pluck(voice);
+    }
+    else {
+      long seed = this.variantRandom.nextInt(this.variants);
+      this.voices.pluck(voice, this.excitations.get(this.strings[voice].length(), this.shape, seed));
+    }
+    return voice;
+  }
+
+  // the voice already playing frequency, else a free voice, else the quietest (then oldest) sounding voice
+  private int allocate(double frequency) {
+    int free = -1;
+    int victim = 0;
+    for (int i = 0; i < this.strings.length; i++) {
+      if (!this.voices.isActive(i)) {
+        if (free == -1) {
+          free = i;
+        }
+        continue;
+      }
+      if (this.notes[i] == frequency) {
+        return i;
+      }
+      double amplitude = this.strings[i].amplitude();
+      double quietest = this.strings[victim].amplitude();
+      if (!this.voices.isActive(victim) || amplitude < quietest
+              || (amplitude == quietest && this.startedAt[i] < this.startedAt[victim])) {
+        victim = i;
+      }
+    }
+    return free != -1 ? free : victim;
+  }
+
+  /**
+   * Seeds every voice's noise generator from one seed, so the same sequence of notes plays the same samples.
+   * @param seed Seed for the pool
+   */
+  public void seed(long seed) {
+    SplittableRandom seeds = new SplittableRandom(seed);
+    this.variantRandom = seeds.split();
+    for (DoubleFixedSizeQueueGuitarString string : this.strings) {
+      string.seed(seeds.nextLong());
+    }
+  }
+
+  /**
+   * Adds the next len samples of every sounding voice into block[off..off + len).
+   * @param block Buffer to mix into
+   * @param off Index of the first sample to write
+   * @param len Number of samples to render
+   */
+  public void render(double[] block, int off, int len) {
+    this.voices.render(block, off, len);
+  }
+
+  /**
+   * Adds the next len frames of every sounding voice into a buffer of interleaved frames, each voice panned
+   * to its note's position.
+   * @param frames Buffer of interleaved frames to mix into
+   * @param off Index of the first sample of the first frame to write
+   * @param len Number of frames to render
+   * @param channels Number of channels in each frame; with one, pan positions are ignored
+   */
+  public void render(double[] frames, int off, int len, int channels) {
+    if (channels == 1) {
+      this.voices.render(frames, off, len);
+      return;
+    }
+    for (int v = 0; v < this.strings.length; v++) {
+      if (this.gains[v].length != channels) {
+        this.gains[v] = new double[channels];
+      }
+      panGains(this.pans[v], this.gains[v]);
+    }
+    this.voices.render(frames, off, len, this.gains);
+  }
+
+  // equal-power gains placing a voice at pan between the two channels nearest to it
+  static void panGains(double pan, double[] gains) {
+    Arrays.fill(gains, 0.0);
+    if (gains.length == 1) {
+      gains[0] = 1.0;
+      return;
+    }
+    double position = (pan + 1) / 2 * (gains.length - 1);
+    int below = Math.min((int) position, gains.length - 2);
+    double angle = (position - below) * Math.PI / 2;
+    gains[below] = Math.cos(angle);
+    gains[below + 1] = Math.sin(angle);
+  }
+
+  public int polyphony() {
+    return this.strings.length;
+  }
+
+  public int activeCount() {
+    return this.voices.activeCount();
+  }
+}
@@ -0,0 +1,234 @@
+package edu.caltech.cs2.project03.libraries;
+
+import edu.caltech.cs2.datastructures.SpscCircularArrayFixedSizeQueue;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *  Decouples synthesis from a slow or blocking sink. Samples written to the engine are copied into one of a
+ *  fixed set of preallocated blocks; full blocks pass to a dedicated writer thread through a lock-free
+ *  single-producer single-consumer ring, and the writer hands each block back through a second ring once the
+ *  target has taken it. The synthesis thread only waits when every block is queued, which is what paces it
+ *  to the device; a device that stalls briefly is absorbed by the queued blocks instead of stalling synthesis.
+ *
+ *  Latency is roughly blockSamples * blockCount samples. Whether the device ran dry is up to the target to
+ *  notice: the writer finding no block ready only means it is faster than the producer, which is the normal
+ *  state for a sink that blocks, such as {@link LineAudioSink}, and for one that never blocks at all.
+ *
+ *  write() and flush() must be called from a single thread.
+ */
+public class AudioOutputEngine implements AudioSink {
+  private final AudioSink target;
+  private final SpscCircularArrayFixedSizeQueue<Block> filled;
+  private final SpscCircularArrayFixedSizeQueue<Block> free;
+  private final Thread writer;
+  private volatile Thread producer;
+  private volatile boolean closing;
+  private volatile boolean finished;
+  private volatile IOException failure;
+  private Block current;
+  private boolean targetClosed;
+
+  // a preallocated buffer of samples and how many of them are in use
+  private static final class Block {
+    final double[] samples;
+    int length;
+
+    Block(int size) {
+      this.samples = new double[size];
+      this.length = 0;
+    }
+  }
+
+  /**
+   * Starts a writer thread for target.
+   *
+   * @param  target the sink the writer thread writes to; it is closed when the engine is
+   * @param  blockSamples number of samples per block
+   * @param  blockCount number of blocks, at least 2
+   */
+  public AudioOutputEngine(AudioSink target, int blockSamples, int blockCount) {
+    if (blockSamples < 1 || blockCount < 2) {
+      throw new IllegalArgumentException("need at least two blocks of at least one sample");
+    }
+    this.target = target;
+    this.filled = new SpscCircularArrayFixedSizeQueue<>(blockCount);
+    this.free = new SpscCircularArrayFixedSizeQueue<>(blockCount);
+    for (int i = 1; i < blockCount; i++) {
+      this.free.enqueue(new Block(blockSamples));
+    }
+    this.current = new Block(blockSamples);
+    this.closing = false;
+    this.finished = false;
+    this.targetClosed = false;
+    this.writer = new Thread(this::drain, "audio-output");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  // writer thread: plays filled blocks until the last one has been flushed and played
+  private void drain() {
+    while (true) {
+      // read before dequeuing: once finished is seen, the last block is already in the ring
+      boolean done = this.finished;
+      Block block = this.filled.dequeue();
+      if (block == null) {
+        if (done) {
+          return;
+        }
+        LockSupport.park(this);
+        continue;
+      }
+      try {
+        if (this.failure == null) {
+          this.target.write(block.samples, 0, block.length);
+        }
+      }
+      catch (IOException | RuntimeException e) {
+        this.failure = e instanceof IOException ? (IOException) e : new IOException(e);
+      }
+      block.length = 0;
+      this.free.enqueue(block);
+      LockSupport.unpark(this.producer);
+    }
+  }
+
+  private void checkFailure() throws IOException {
+    if (this.failure != null) {
+      throw new IOException("audio output failed", this.failure);
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if (this.closing) {
+      throw new IOException("engine is closed");
+    }
+    this.checkFailure();
+  }
+
+  @Override
+  public void write(double[] samples, int off, int len) throws IOException {
+    this.checkOpen();
+    while (len > 0) {
+      Block block = this.current;
+      int n = Math.min(len, block.samples.length - block.length);
+      // checked while copying, so rejecting NaN costs no second pass; the samples before it stay queued
+      double[] dst = block.samples;
+      int base = block.length;
+      for (int i = 0; i < n; i++) {
+        double sample = samples[off + i];
+        if (Double.isNaN(sample)) {
+          block.length = base + i;
+          throw new IllegalArgumentException("sample is NaN");
+        }
+        dst[base + i] = sample;
+      }
+      block.length += n;
+      off += n;
+      len -= n;
+      if (block.length == block.samples.length) {
+        this.publish();
+      }
+    }
+  }
+
+  /**
+   * Writes one sample.
+   *
+   * @param  sample the sample to write
+   * @throws IOException if the engine is closed or the target has failed
+   */
+  public void write(double sample) throws IOException {
+    if (this.closing) {
+      throw new IOException("engine is closed");
+    }
+    Block block = this.current;
+    if (block.length == block.samples.length) {
+      // only left full when publishing it threw, so report that again instead of writing past the end
+      this.checkFailure();
+      this.publish();
+      block = this.current;
+    }
+    block.samples[block.length++] = sample;
+    if (block.length == block.samples.length) {
+      this.checkFailure();
+      this.publish();
+    }
+  }
+
+  // hands the current block to the writer and takes a free one, waiting if all of them are queued
+  private void publish() throws IOException {
+    if (this.finished) {
+      // the writer has exited, so no free block would ever come back
+      throw new IOException("engine is closed");
+    }
+    if (this.producer == null) {
+      // recorded before the first block is queued, so the writer always knows whom to wake
+      this.producer = Thread.currentThread();
+    }
+    if (!this.filled.enqueue(this.current)) {
+      // every block but the current one is either free or queued, so the ring always has room
+      throw new IllegalStateException("output queue is full");
+    }
+    LockSupport.unpark(this.writer);
+    Block next;
+    while ((next = this.free.dequeue()) == null) {
+      LockSupport.park(this);
+    }
+    this.current = next;
+  }
+
+  /**
+   * Sends a partly filled block to the writer instead of waiting for it to fill.
+   *
+   * @throws IOException if the engine is closed or the target has failed
+   */
+  public void flush() throws IOException {
+    this.checkOpen();
+    if (this.current.length > 0) {
+      this.publish();
+    }
+  }
+
+  /**
+   * Flushes, waits for the writer to play every queued block and stops it, leaving the target open so that
+   * another engine can take it over.
+   *
+   * @throws IOException if the target has failed
+   */
+  public void finish() throws IOException {
+    if (!this.closing) {
+      // writes are refused once closing is set, and the writer exits once finished is
+      this.closing = true;
+      if (this.current.length > 0) {
+        this.publish();
+      }
+      this.finished = true;
+      LockSupport.unpark(this.writer);
+      try {
+        this.writer.join();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("interrupted while draining audio", e);
+      }
+    }
+    this.checkFailure();
+  }
+
+  /**
+   * Finishes, then closes the target.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      this.finish();
+    } finally {
+      if (!this.targetClosed) {
+        this.targetClosed = true;
+        this.target.close();
+      }
+    }
+  }
+}
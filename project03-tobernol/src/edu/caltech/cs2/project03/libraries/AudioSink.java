@@ -0,0 +1,33 @@
+package edu.caltech.cs2.project03.libraries;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ *  A destination for blocks of audio samples between -1.0 and +1.0, such as a file or a sound card.
+ *  Samples outside the range are clipped. Closing a sink flushes anything it still buffers.
+ */
+public interface AudioSink extends Closeable {
+
+  /**
+   * Writes samples[off..off + len) to the sink.
+   *
+   * @param  samples the samples to write
+   * @param  off index of the first sample
+   * @param  len number of samples
+   * @throws IOException if the samples cannot be written
+   * @throws IllegalArgumentException if any sample is {@code Double.NaN}
+   */
+  void write(double[] samples, int off, int len) throws IOException;
+
+  /**
+   * Writes every sample in the array to the sink.
+   *
+   * @param  samples the samples to write
+   * @throws IOException if the samples cannot be written
+   * @throws IllegalArgumentException if any sample is {@code Double.NaN}
+   */
+  default void write(double[] samples) throws IOException {
+    this.write(samples, 0, samples.length);
+  }
+}
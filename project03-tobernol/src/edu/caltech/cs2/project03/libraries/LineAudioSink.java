@@ -0,0 +1,113 @@
+package edu.caltech.cs2.project03.libraries;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.nio.ByteBuffer;
+
+/**
+ *  Plays samples on the sound card. Each write encodes a block with a {@link PcmEncoder} and blocks until the
+ *  line has room for it, which is what paces playback to the device; {@link StdAudio} calls it from its output
+ *  thread for that reason.
+ *
+ *  Samples are interleaved when the format has more than one channel. A line only accepts whole frames, so
+ *  the samples of a frame split across two writes are held back until the rest of the frame arrives.
+ *
+ *  A write that finds the line's buffer already empty counts as an underrun: the sound card played everything
+ *  it had and went silent before more arrived. The first write, into a line that was just started, does not.
+ */
+public class LineAudioSink implements AudioSink {
+  private final SourceDataLine line;
+  private final OutputFormat format;
+  private final byte[] bytes;
+  private final ByteBuffer buffer;
+  private final PcmEncoder encoder;
+  private boolean started;
+  private volatile long underruns;
+
+  /**
+   * Opens and starts a line sized and encoded as playback says.
+   *
+   * @param  playback the line buffer size, block size, dither and format to use
+   * @throws LineUnavailableException if there is no sound card, or it does not support the format
+   */
+  public LineAudioSink(PlaybackSettings playback) throws LineUnavailableException {
+    this(openLine(playback.format().audioFormat()), playback);
+  }
+
+  // plays into a line that is not yet open, which tests can supply in place of a sound card
+  LineAudioSink(SourceDataLine line, PlaybackSettings playback) throws LineUnavailableException {
+    this.format = playback.format();
+    this.line = line;
+    this.line.open(this.format.audioFormat(), playback.lineBufferFrames() * this.format.bytesPerFrame());
+    this.bytes = new byte[playback.blockFrames() * this.format.bytesPerFrame()];
+    this.buffer = ByteBuffer.wrap(this.bytes);
+    this.encoder = new PcmEncoder(this.format, playback.dither());
+    this.started = false;
+    this.underruns = 0;
+
+    // no sound gets made before this call
+    this.line.start();
+  }
+
+  private static SourceDataLine openLine(AudioFormat audioFormat) throws LineUnavailableException {
+    DataLine.Info info = new DataLine.Info(SourceDataLine.class, audioFormat);
+    try {
+      return (SourceDataLine) AudioSystem.getLine(info);
+    }
+    catch (IllegalArgumentException e) {
+      // thrown instead when no mixer supports the line at all, as on a machine with no audio device
+      throw new LineUnavailableException("no sound card supports " + audioFormat);
+    }
+  }
+
+  @Override
+  public void write(double[] samples, int off, int len) {
+    if (len > 0) {
+      if (this.started && this.line.available() == this.line.getBufferSize()) {
+        this.underruns++;
+      }
+      this.started = true;
+    }
+    int bytesPerSample = this.format.bytesPerSample();
+    while (len > 0) {
+      int n = Math.min(len, this.buffer.remaining() / bytesPerSample);
+      this.encoder.encode(samples, off, n, this.buffer);
+      off += n;
+      len -= n;
+
+      // play the whole frames and move any partial one to the front
+      int filled = this.buffer.position();
+      int whole = filled - filled % this.format.bytesPerFrame();
+      this.line.write(this.bytes, 0, whole);
+      System.arraycopy(this.bytes, whole, this.bytes, 0, filled - whole);
+      this.buffer.position(filled - whole);
+    }
+  }
+
+  /**
+   * Returns the number of times a write found that the sound card had run out of audio.
+   */
+  public long underruns() {
+    return this.underruns;
+  }
+
+  /**
+   * Returns the number of frames the sound card has played since the line was opened.
+   */
+  public long framePosition() {
+    return this.line.getLongFramePosition();
+  }
+
+  /**
+   * Waits for the line to play everything written to it, then releases it. A trailing partial frame is dropped.
+   */
+  @Override
+  public void close() {
+    this.line.drain();
+    this.line.stop();
+    this.line.close();
+  }
+}
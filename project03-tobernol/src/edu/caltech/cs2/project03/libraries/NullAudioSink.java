@@ -0,0 +1,65 @@
+package edu.caltech.cs2.project03.libraries;
+
+/**
+ *  Discards samples as fast as they arrive, counting them. Playing into it measures how quickly the producer
+ *  can generate audio with no sound card to wait for, which is how {@link StdAudio} runs on a machine without one.
+ *
+ *  The counters are written by the thread that feeds the sink, StdAudio's output thread, and may be read from
+ *  any other while it runs. They are volatile, so a reader never sees a stale or torn value, but during
+ *  playback the figures can be a block apart from each other. They are exact once {@link StdAudio#close()} or
+ *  {@link StdAudio#configure} has drained the output thread.
+ */
+public class NullAudioSink implements AudioSink {
+  private final int channels;
+  private volatile long samples;
+  private volatile long firstWrite;
+  private volatile long lastWrite;
+
+  public NullAudioSink() {
+    this(1);
+  }
+
+  /**
+   * @param  channels number of interleaved channels in the samples written, used to measure throughput
+   */
+  public NullAudioSink(int channels) {
+    this.channels = channels;
+    this.samples = 0;
+  }
+
+  @Override
+  public void write(double[] samples, int off, int len) {
+    long now = System.nanoTime();
+    // firstWrite is set before samples turns nonzero, so a reader that sees samples sees it too
+    if (this.samples == 0) {
+      this.firstWrite = now;
+    }
+    this.lastWrite = now;
+    this.samples += len;
+  }
+
+  /**
+   * Returns the number of samples written so far, counting each channel's sample in a frame separately.
+   */
+  public long samples() {
+    return this.samples;
+  }
+
+  /**
+   * Returns how many seconds of audio arrived per second of wall time, from the first write to the last.
+   *
+   * @return the throughput as a multiple of realtime, or 0 until two writes have arrived
+   */
+  public double realtimeFactor() {
+    long samples = this.samples;
+    long elapsed = this.lastWrite - this.firstWrite;
+    if (samples == 0 || elapsed <= 0) {
+      return 0.0;
+    }
+    return (double) samples / this.channels / PcmFormat.SAMPLE_RATE / (elapsed / 1e9);
+  }
+
+  @Override
+  public void close() {
+  }
+}
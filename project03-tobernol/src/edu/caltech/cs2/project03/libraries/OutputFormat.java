@@ -0,0 +1,104 @@
+package edu.caltech.cs2.project03.libraries;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ *  The encoding and channel count standard audio plays in, always at 44,100 Hz and little endian. Samples for
+ *  more than one channel are interleaved: a frame holds one sample for each channel, in channel order, and a
+ *  buffer of audio is a sequence of frames.
+ *
+ *  16-bit PCM clips every sample to [-1.0, +1.0] and rounds it to one of 65,536 steps. 32-bit float keeps the
+ *  samples as they are, so a mix can go past full scale without being clipped until it reaches the device.
+ */
+public final class OutputFormat {
+
+  /**
+   *  How each sample is stored.
+   */
+  public enum Encoding {
+    /** Signed 16-bit integers, as in {@link PcmFormat}. */
+    PCM_16(2),
+    /** IEEE 754 32-bit floats. */
+    FLOAT_32(4);
+
+    private final int bytesPerSample;
+
+    Encoding(int bytesPerSample) {
+      this.bytesPerSample = bytesPerSample;
+    }
+  }
+
+  /**
+   *  16-bit mono, the format of {@link PcmFormat} and the one StdAudio starts with.
+   */
+  public static final OutputFormat MONO_16 = new OutputFormat(Encoding.PCM_16, 1);
+
+  /**
+   *  32-bit float stereo.
+   */
+  public static final OutputFormat STEREO_FLOAT = new OutputFormat(Encoding.FLOAT_32, 2);
+
+  private final Encoding encoding;
+  private final int channels;
+
+  /**
+   * @param  encoding how each sample is stored
+   * @param  channels number of samples in each frame
+   * @throws IllegalArgumentException if channels is not positive
+   */
+  public OutputFormat(Encoding encoding, int channels) {
+    if (channels < 1) {
+      throw new IllegalArgumentException("need at least one channel");
+    }
+    this.encoding = encoding;
+    this.channels = channels;
+  }
+
+  public Encoding encoding() {
+    return this.encoding;
+  }
+
+  public int channels() {
+    return this.channels;
+  }
+
+  public int bytesPerSample() {
+    return this.encoding.bytesPerSample;
+  }
+
+  public int bytesPerFrame() {
+    return this.channels * this.encoding.bytesPerSample;
+  }
+
+  /**
+   * Returns the equivalent Java Sound format, for opening a line or describing a stream.
+   *
+   * @return this format at 44,100 Hz, little endian
+   */
+  public AudioFormat audioFormat() {
+    AudioFormat.Encoding encoding = this.encoding == Encoding.FLOAT_32
+        ? AudioFormat.Encoding.PCM_FLOAT
+        : AudioFormat.Encoding.PCM_SIGNED;
+    return new AudioFormat(encoding, PcmFormat.SAMPLE_RATE, 8 * this.bytesPerSample(), this.channels,
+        this.bytesPerFrame(), PcmFormat.SAMPLE_RATE, false);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof OutputFormat)) {
+      return false;
+    }
+    OutputFormat other = (OutputFormat) o;
+    return this.encoding == other.encoding && this.channels == other.channels;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * this.encoding.hashCode() + this.channels;
+  }
+
+  @Override
+  public String toString() {
+    return this.encoding + " x " + this.channels;
+  }
+}
@@ -0,0 +1,221 @@
+package edu.caltech.cs2.project03.libraries;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.SplittableRandom;
+
+/**
+ *  Converts blocks of samples to an {@link OutputFormat}'s encoding, by default {@link PcmFormat}'s 16-bit mono.
+ *  Without dither a block is clamped and scaled into a reused short[] by a loop with no calls or early exits,
+ *  which a vectorizing JIT can compile to SIMD instructions, and then copied into the destination in bulk; the
+ *  result is identical to calling {@link PcmFormat#encode(double)} on each sample.
+ *
+ *  Truncating to 16 bits leaves an error that follows the signal, which is audible as distortion on quiet,
+ *  decaying notes. Dither adds triangular noise of one step peak before rounding, so the error becomes a steady
+ *  hiss instead; shaped dither also feeds each sample's error back into the next, which moves that hiss up
+ *  towards frequencies the ear is less sensitive to. Both carry state from block to block, so an encoder
+ *  belongs to one stream. For interleaved audio, each channel feeds back only its own error.
+ *
+ *  32-bit float output is neither clipped nor dithered; the samples are only narrowed from double to float.
+ */
+public final class PcmEncoder {
+  private static final double MAX_16_BIT = Short.MAX_VALUE;     // 32,767
+
+  /**
+   *  How rounding error is treated.
+   */
+  public enum Dither {
+    /** Truncate, exactly like {@link PcmFormat#encode(double)}. */
+    NONE,
+    /** Add triangular noise, then round. */
+    TRIANGULAR,
+    /** Add triangular noise and first-order error feedback, then round. */
+    SHAPED
+  }
+
+  private final OutputFormat format;
+  private final Dither dither;
+  private final SplittableRandom random;
+  private short[] scratch;
+  private float[] floatScratch;
+  private final double[] error;
+  private int channel;
+
+  public PcmEncoder() {
+    this(Dither.NONE);
+  }
+
+  public PcmEncoder(Dither dither) {
+    this(dither, new SplittableRandom());
+  }
+
+  public PcmEncoder(Dither dither, SplittableRandom random) {
+    this(OutputFormat.MONO_16, dither, random);
+  }
+
+  public PcmEncoder(OutputFormat format, Dither dither) {
+    this(format, dither, new SplittableRandom());
+  }
+
+  /**
+   * @param  format encoding used by {@link #encode(double[], int, int, ByteBuffer)}, and the number of
+   *         interleaved channels
+   * @param  dither how to treat rounding error
+   * @param  random source of dither noise
+   */
+  public PcmEncoder(OutputFormat format, Dither dither, SplittableRandom random) {
+    this.format = format;
+    this.dither = dither;
+    this.random = random;
+    this.scratch = new short[0];
+    this.floatScratch = new float[0];
+    this.error = new double[format.channels()];
+    this.channel = 0;
+  }
+
+  /**
+   * Returns a little endian view of bytes for encoding into, starting at its position.
+   *
+   * @param  bytes buffer to hold the encoded samples
+   * @return a short view of bytes in {@link PcmFormat}'s byte order
+   */
+  public static ShortBuffer view(ByteBuffer bytes) {
+    return bytes.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+  }
+
+  /**
+   * Encodes samples[off..off + len) into dst at its position, advancing the position by len.
+   *
+   * @param  samples the samples to encode
+   * @param  off index of the first sample
+   * @param  len number of samples
+   * @param  dst buffer to receive the encoded samples, such as a {@link #view(ByteBuffer)}
+   * @throws IllegalArgumentException if any sample is {@code Double.NaN}
+   */
+  public void encode(double[] samples, int off, int len, ShortBuffer dst) {
+    short[] out = this.scratch(len);
+    for (int i = 0; i < len; i++) {
+      if (samples[off + i] != samples[off + i]) throw new IllegalArgumentException("sample is NaN");
+    }
+    if (this.dither == Dither.NONE) {
+      for (int i = 0; i < len; i++) {
+        double x = samples[off + i];
+        x = x < -1.0 ? -1.0 : x;
+        x = x > +1.0 ? +1.0 : x;
+        out[i] = (short) (MAX_16_BIT * x);
+      }
+      this.advanceChannel(len);
+    }
+    else {
+      for (int i = 0; i < len; i++) {
+        out[i] = this.dithered(samples[off + i]);
+      }
+    }
+    dst.put(out, 0, len);
+  }
+
+  /**
+   * Encodes samples[off..off + len) into dst at its position, advancing the position by len.
+   *
+   * @param  samples the samples to encode
+   * @param  off index of the first sample
+   * @param  len number of samples
+   * @param  dst buffer to receive the encoded samples, such as a {@link #view(ByteBuffer)}
+   * @throws IllegalArgumentException if any sample is {@code Float.NaN}
+   */
+  public void encode(float[] samples, int off, int len, ShortBuffer dst) {
+    short[] out = this.scratch(len);
+    for (int i = 0; i < len; i++) {
+      if (samples[off + i] != samples[off + i]) throw new IllegalArgumentException("sample is NaN");
+    }
+    if (this.dither == Dither.NONE) {
+      for (int i = 0; i < len; i++) {
+        float x = samples[off + i];
+        x = x < -1.0f ? -1.0f : x;
+        x = x > +1.0f ? +1.0f : x;
+        out[i] = (short) (MAX_16_BIT * x);
+      }
+      this.advanceChannel(len);
+    }
+    else {
+      for (int i = 0; i < len; i++) {
+        out[i] = this.dithered(samples[off + i]);
+      }
+    }
+    dst.put(out, 0, len);
+  }
+
+  /**
+   * Encodes samples[off..off + len) into dst at its position as 32-bit floats, advancing the position by len.
+   *
+   * @param  samples the samples to encode
+   * @param  off index of the first sample
+   * @param  len number of samples
+   * @param  dst buffer to receive the encoded samples
+   * @throws IllegalArgumentException if any sample is {@code Double.NaN}
+   */
+  public void encode(double[] samples, int off, int len, FloatBuffer dst) {
+    if (this.floatScratch.length < len) {
+      this.floatScratch = new float[len];
+    }
+    float[] out = this.floatScratch;
+    for (int i = 0; i < len; i++) {
+      if (samples[off + i] != samples[off + i]) throw new IllegalArgumentException("sample is NaN");
+    }
+    for (int i = 0; i < len; i++) {
+      out[i] = (float) samples[off + i];
+    }
+    this.advanceChannel(len);
+    dst.put(out, 0, len);
+  }
+
+  /**
+   * Encodes samples[off..off + len) into bytes at its position in this encoder's format, advancing the position
+   * by len times the format's bytes per sample.
+   *
+   * @param  samples the samples to encode, interleaved if the format has more than one channel
+   * @param  off index of the first sample
+   * @param  len number of samples
+   * @param  bytes buffer to receive the encoded samples; it is switched to little endian
+   * @throws IllegalArgumentException if any sample is {@code Double.NaN}
+   */
+  public void encode(double[] samples, int off, int len, ByteBuffer bytes) {
+    bytes.order(ByteOrder.LITTLE_ENDIAN);
+    if (this.format.encoding() == OutputFormat.Encoding.FLOAT_32) {
+      this.encode(samples, off, len, bytes.asFloatBuffer());
+    }
+    else {
+      this.encode(samples, off, len, bytes.asShortBuffer());
+    }
+    bytes.position(bytes.position() + len * this.format.bytesPerSample());
+  }
+
+  private void advanceChannel(int samples) {
+    this.channel = (int) ((this.channel + (long) samples) % this.error.length);
+  }
+
+  // one sample in steps of 1 / 32,767, with dither noise and, when shaping, its channel's last error
+  private short dithered(double sample) {
+    int c = this.channel;
+    this.channel = c + 1 == this.error.length ? 0 : c + 1;
+    double target = MAX_16_BIT * sample - this.error[c];
+    double noise = this.random.nextDouble() - this.random.nextDouble();
+    double q = Math.rint(target + noise);
+    q = Math.max(-MAX_16_BIT, Math.min(MAX_16_BIT, q));
+    if (this.dither == Dither.SHAPED) {
+      // rounding plus noise is at most 1.5 steps; anything beyond that is clipping, which is not error
+      // to be shaped away, and would wind up the feedback over a long clip
+      this.error[c] = Math.max(-1.5, Math.min(1.5, q - target));
+    }
+    return (short) q;
+  }
+
+  private short[] scratch(int len) {
+    if (this.scratch.length < len) {
+      this.scratch = new short[len];
+    }
+    return this.scratch;
+  }
+}
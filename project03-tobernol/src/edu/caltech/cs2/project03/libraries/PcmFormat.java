@@ -0,0 +1,79 @@
+package edu.caltech.cs2.project03.libraries;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ *  The audio format shared by {@link StdAudio} and the offline renderers: 44,100 Hz, 16-bit, monaural,
+ *  signed PCM, little endian. Unlike StdAudio, using this class does not open a sound card line.
+ */
+public final class PcmFormat {
+
+  /**
+   *  The sample rate - 44,100 Hz for CD quality audio.
+   */
+  public static final int SAMPLE_RATE = 44100;
+
+  /**
+   *  The number of bytes in one encoded sample.
+   */
+  public static final int BYTES_PER_SAMPLE = 2;
+
+  private static final int BITS_PER_SAMPLE = 16;
+  private static final double MAX_16_BIT = Short.MAX_VALUE;     // 32,767
+
+  private PcmFormat() {
+    // can not instantiate
+  }
+
+  /**
+   * Returns the format of encoded audio.
+   *
+   * @return 44,100 Hz, 16-bit, mono, signed, little endian PCM
+   */
+  public static AudioFormat format() {
+    return new AudioFormat((float) SAMPLE_RATE, BITS_PER_SAMPLE, 1, true, false);
+  }
+
+  /**
+   * Encodes one sample (between -1.0 and +1.0) as a 16-bit value.
+   * If the sample is outside the range, it will be clipped.
+   *
+   * @param  sample the sample to encode
+   * @return the encoded sample
+   * @throws IllegalArgumentException if the sample is {@code Double.NaN}
+   */
+  public static short encode(double sample) {
+    if (Double.isNaN(sample)) throw new IllegalArgumentException("sample is NaN");
+    if (sample < -1.0) sample = -1.0;
+    if (sample > +1.0) sample = +1.0;
+    return (short) (MAX_16_BIT * sample);
+  }
+
+  /**
+   * Decodes one 16-bit value back into a sample between -1.0 and +1.0.
+   *
+   * @param  s the encoded sample
+   * @return the sample
+   */
+  public static double decode(short s) {
+    return s / MAX_16_BIT;
+  }
+
+  /**
+   * Encodes samples[off..off + len) into dst, two little endian bytes per sample, starting at dst[dstOff].
+   *
+   * @param  samples the samples to encode
+   * @param  off index of the first sample
+   * @param  len number of samples
+   * @param  dst array to receive the bytes
+   * @param  dstOff index in dst of the first byte
+   * @throws IllegalArgumentException if any sample is {@code Double.NaN}
+   */
+  public static void encode(double[] samples, int off, int len, byte[] dst, int dstOff) {
+    for (int i = 0; i < len; i++) {
+      short s = encode(samples[off + i]);
+      dst[dstOff + 2*i + 0] = (byte) s;
+      dst[dstOff + 2*i + 1] = (byte) (s >> 8);   // little Endian
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package edu.caltech.cs2.project03.libraries;
+
+/**
+ *  How {@link StdAudio} buffers and encodes audio on its way to the sound card: the size of the line's own
+ *  buffer, the size and number of the blocks queued ahead of it by the output thread, and the output format.
+ *  Small buffers keep the delay between play() and the speaker short, but leave less slack for a slow producer
+ *  before the sound card runs dry; large buffers trade that delay for headroom.
+ *
+ *  Sizes are in frames, one sample for every channel, so they mean the same length of time in any format.
+ */
+public final class PlaybackSettings {
+
+  /**
+   *  About 12 ms of audio queued ahead of the speaker, for live play.
+   */
+  public static final PlaybackSettings LOW_LATENCY = new PlaybackSettings(256, 128, 2);
+
+  /**
+   *  About 93 ms queued, the settings StdAudio starts with: the same 4096 frames as the single line buffer it
+   *  used before the output thread, split between the line and the queue.
+   */
+  public static final PlaybackSettings DEFAULT = new PlaybackSettings(2048, 512, 4);
+
+  /**
+   *  About 1.1 s queued, for playing back audio that is rendered ahead of time.
+   */
+  public static final PlaybackSettings HIGH_THROUGHPUT = new PlaybackSettings(16384, 8192, 4);
+
+  private final int lineBufferFrames;
+  private final int blockFrames;
+  private final int blockCount;
+  private final PcmEncoder.Dither dither;
+  private final OutputFormat format;
+
+  public PlaybackSettings(int lineBufferFrames, int blockFrames, int blockCount) {
+    this(lineBufferFrames, blockFrames, blockCount, PcmEncoder.Dither.NONE, OutputFormat.MONO_16);
+  }
+
+  /**
+   * @param  lineBufferFrames size of the sound card line's buffer, in frames
+   * @param  blockFrames number of frames the output thread writes to the line at once
+   * @param  blockCount number of blocks queued ahead of the line, at least 2
+   * @param  dither how to treat the rounding error of 16-bit encoding
+   * @param  format encoding and channel count of the output
+   * @throws IllegalArgumentException if a block does not fit in the line buffer or there are fewer than two blocks
+   */
+  public PlaybackSettings(int lineBufferFrames, int blockFrames, int blockCount, PcmEncoder.Dither dither,
+                          OutputFormat format) {
+    if (blockFrames < 1 || blockFrames > lineBufferFrames) {
+      throw new IllegalArgumentException("blocks must hold between 1 and " + lineBufferFrames + " frames");
+    }
+    if (blockCount < 2) {
+      throw new IllegalArgumentException("need at least two blocks");
+    }
+    this.lineBufferFrames = lineBufferFrames;
+    this.blockFrames = blockFrames;
+    this.blockCount = blockCount;
+    this.dither = dither;
+    this.format = format;
+  }
+
+  /**
+   * Returns these settings with a different output format.
+   *
+   * @param  format the new encoding and channel count
+   * @return settings that differ from these only in format
+   */
+  public PlaybackSettings withFormat(OutputFormat format) {
+    return new PlaybackSettings(this.lineBufferFrames, this.blockFrames, this.blockCount, this.dither, format);
+  }
+
+  public int lineBufferFrames() {
+    return this.lineBufferFrames;
+  }
+
+  public int blockFrames() {
+    return this.blockFrames;
+  }
+
+  public int blockCount() {
+    return this.blockCount;
+  }
+
+  public PcmEncoder.Dither dither() {
+    return this.dither;
+  }
+
+  public OutputFormat format() {
+    return this.format;
+  }
+
+  /**
+   * Returns the most audio that can be waiting between play() and the speaker: a full line buffer plus
+   * every queued block.
+   *
+   * @return the worst case output latency, in frames
+   */
+  public int latencyFrames() {
+    return this.lineBufferFrames + this.blockFrames * this.blockCount;
+  }
+
+  /**
+   * Returns {@link #latencyFrames()} in seconds.
+   *
+   * @return the worst case output latency, in seconds
+   */
+  public double latencySeconds() {
+    return (double) this.latencyFrames() / PcmFormat.SAMPLE_RATE;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s, %d frame line buffer, %d x %d frame blocks (%.1f ms)",
+        this.format, this.lineBufferFrames, this.blockCount, this.blockFrames, 1000 * this.latencySeconds());
+  }
+}
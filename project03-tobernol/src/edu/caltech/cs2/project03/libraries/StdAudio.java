@@ -28,6 +28,7 @@ import java.io.InputStream;
 import java.io.IOException;
 
 import java.net.URL;
+import java.nio.ByteBuffer;
 
 import javax.sound.sampled.AudioFileFormat;
 import javax.sound.sampled.AudioFormat;
@@ -43,6 +44,7 @@ import javax.sound.sampled.UnsupportedAudioFileException;
  *  creating, reading, and saving audio.
  *  <p>
  *  The audio format uses a sampling rate of 44,100 (CD quality audio), 16-bit, monaural.
+ *  Playback can instead use 32-bit float samples or several interleaved channels; see {@link OutputFormat}.
  *
  *  <p>
  *  For additional documentation, see <a href="https://introcs.cs.princeton.edu/15inout">Section 1.5</a> of
@@ -61,12 +63,29 @@ public final class StdAudio {
   private static final int BYTES_PER_SAMPLE = 2;                // 16-bit audio
   private static final int BITS_PER_SAMPLE = 16;                // 16-bit audio
   private static final double MAX_16_BIT = Short.MAX_VALUE;     // 32,767
-  private static final int SAMPLE_BUFFER_SIZE = 4096;
 
 
-  private static SourceDataLine line;   // to play the sound
-  private static byte[] buffer;         // our internal buffer
-  private static int bufferSize = 0;    // number of samples currently in internal buffer
+  /**
+   *  The system property that chooses where standard audio goes: {@code line} for the sound card (the
+   *  default), {@code null} to discard samples, or {@code file:}<i>name</i>{@code .wav} to record them.
+   */
+  public static final String SINK_PROPERTY = "stdaudio.sink";
+
+  /**
+   *  The system property that chooses how played samples are encoded: {@code pcm16} (the default) or
+   *  {@code float32}.
+   */
+  public static final String ENCODING_PROPERTY = "stdaudio.encoding";
+
+  /**
+   *  The system property that chooses how many interleaved channels play() takes, 1 by default.
+   */
+  public static final String CHANNELS_PROPERTY = "stdaudio.channels";
+
+  private static AudioSink sink;        // where the sound goes
+  private static AudioOutputEngine engine;  // feeds the sink from its own thread
+  private static PlaybackSettings settings;  // how line and engine are sized
+  private static long queued = 0;       // samples handed to the engine since the sink was opened
 
   private StdAudio() {
     // can not instantiate
@@ -74,70 +93,225 @@ public final class StdAudio {
 
   // static initializer
   static {
-    init();
+    settings = PlaybackSettings.DEFAULT;
+    try {
+      settings = settings.withFormat(parseFormat(System.getProperty(ENCODING_PROPERTY, "pcm16"),
+          System.getProperty(CHANNELS_PROPERTY, "1")));
+    }
+    catch (IllegalArgumentException e) {
+      System.out.println("StdAudio: " + e.getMessage() + ", playing 16-bit mono instead");
+    }
+    String spec = System.getProperty(SINK_PROPERTY, "line");
+    try {
+      sink = openSink(spec, settings);
+    }
+    catch (LineUnavailableException | IllegalArgumentException e) {
+      // keep the program running; it just won't be heard
+      System.out.println(e.getMessage());
+      System.out.println("StdAudio: cannot open sink '" + spec + "', discarding audio instead");
+      sink = new NullAudioSink(settings.format().channels());
+    }
+    // the blocking writes happen on the engine's thread, so a busy sound card does not stall
+    // whoever is calling play()
+    engine = newEngine(sink, settings);
   }
 
-  // open up an audio stream
-  private static void init() {
+  private static AudioOutputEngine newEngine(AudioSink target, PlaybackSettings playback) {
+    return new AudioOutputEngine(target, playback.blockFrames() * playback.format().channels(),
+        playback.blockCount());
+  }
+
+  /**
+   * Returns the output format {@link #ENCODING_PROPERTY} and {@link #CHANNELS_PROPERTY} values name.
+   *
+   * @param  encoding {@code pcm16} or {@code float32}
+   * @param  channels a positive number of channels
+   * @return the format
+   * @throws IllegalArgumentException if either value is not understood
+   */
+  static OutputFormat parseFormat(String encoding, String channels) {
+    OutputFormat.Encoding e;
+    if (encoding.equals("pcm16")) {
+      e = OutputFormat.Encoding.PCM_16;
+    }
+    else if (encoding.equals("float32")) {
+      e = OutputFormat.Encoding.FLOAT_32;
+    }
+    else {
+      throw new IllegalArgumentException("unknown encoding '" + encoding + "'; expected pcm16 or float32");
+    }
     try {
-      // 44,100 samples per second, 16-bit audio, mono, signed PCM, little Endian
-      AudioFormat format = new AudioFormat((float) SAMPLE_RATE, BITS_PER_SAMPLE, 1, true, false);
-      DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
+      return new OutputFormat(e, Integer.parseInt(channels));
+    }
+    catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("channel count '" + channels + "' is not a number");
+    }
+  }
 
-      line = (SourceDataLine) AudioSystem.getLine(info);
-      line.open(format, SAMPLE_BUFFER_SIZE * BYTES_PER_SAMPLE);
+  /**
+   * Opens the sink a {@link #SINK_PROPERTY} value names.
+   *
+   * @param  spec {@code line}, {@code null} or {@code file:}<i>name</i>{@code .wav}
+   * @param  playback the buffering and format to open the sink with
+   * @return the opened sink
+   * @throws LineUnavailableException if spec is {@code line} and there is no usable sound card
+   * @throws IllegalArgumentException if spec names no known sink, or the file cannot be created
+   */
+  static AudioSink openSink(String spec, PlaybackSettings playback) throws LineUnavailableException {
+    if (spec.equals("line")) {
+      return new LineAudioSink(playback);
+    }
+    if (spec.equals("null")) {
+      return new NullAudioSink(playback.format().channels());
+    }
+    if (spec.startsWith("file:") && spec.toLowerCase().endsWith(".wav")) {
+      String filename = spec.substring("file:".length());
+      try {
+        return new WavFileSink(new File(filename), playback.format(), playback.dither());
+      }
+      catch (IOException e) {
+        throw new IllegalArgumentException("unable to create file '" + filename + "'", e);
+      }
+    }
+    throw new IllegalArgumentException("unknown audio sink '" + spec + "'; expected line, null or file:<name>.wav");
+  }
 
-      // the internal buffer is a fraction of the actual buffer size, this choice is arbitrary
-      // it gets divided because we can't expect the buffered data to line up exactly with when
-      // the sound card decides to push out its samples.
-      buffer = new byte[SAMPLE_BUFFER_SIZE * BYTES_PER_SAMPLE/3];
+  /**
+   * Returns the sink standard audio is playing into, as chosen by {@link #SINK_PROPERTY}.
+   * A program can, for example, check for a {@link NullAudioSink} to report its throughput.
+   *
+   * @return the current sink
+   */
+  public static AudioSink sink() {
+    return sink;
+  }
+
+  /**
+   * Closes standard audio, after playing every sample already written. A file sink is complete only
+   * once this has been called.
+   */
+  public static void close() {
+    try {
+      engine.close();
     }
-    catch (LineUnavailableException e) {
-      System.out.println(e.getMessage());
+    catch (IOException e) {
+      throw new IllegalStateException("audio output failed", e);
+    }
+  }
+
+  /**
+   * Reopens standard audio with different buffering or format, after playing every sample already written.
+   * A sound card line is reopened with the new settings; a null sink is kept, or replaced if the number of
+   * channels changes; a file keeps its format, and only the blocks in front of it change.
+   *
+   * @param  playback the new settings, such as {@link PlaybackSettings#LOW_LATENCY}
+   * @throws IllegalArgumentException if {@code playback} is {@code null}
+   * @throws IllegalArgumentException if playback changes the format of a file being recorded
+   * @throws IllegalStateException if the sound card cannot be reopened
+   */
+  public static void configure(PlaybackSettings playback) {
+    if (playback == null) throw new IllegalArgumentException("playback settings are null");
+    boolean reformat = !playback.format().equals(settings.format());
+    if (reformat && sink instanceof WavFileSink) {
+      throw new IllegalArgumentException("cannot change the format of a file already being recorded");
     }
+    try {
+      engine.finish();
+      if (sink instanceof LineAudioSink) {
+        sink.close();
+        sink = new LineAudioSink(playback);
+      }
+      else if (reformat && sink instanceof NullAudioSink) {
+        sink = new NullAudioSink(playback.format().channels());
+      }
+    }
+    catch (IOException | LineUnavailableException e) {
+      throw new IllegalStateException("unable to reopen audio output", e);
+    }
+    settings = playback;
+    queued = 0;
+    engine = newEngine(sink, playback);
+  }
 
-    // no sound gets made before this call
-    line.start();
+  /**
+   * Returns the buffering and format standard audio is currently using.
+   *
+   * @return the current playback settings
+   */
+  public static PlaybackSettings settings() {
+    return settings;
   }
 
+  /**
+   * Measures the current output latency: plays one block of silence and returns the time until the
+   * sound card reaches its last sample. The result includes anything still queued from earlier calls to play(),
+   * so it is the delay a sample written now would actually have.
+   *
+   * @return the measured latency, in seconds
+   * @throws IllegalStateException if standard audio is not playing on a sound card
+   */
+  public static double measureLatency() {
+    if (!(sink instanceof LineAudioSink)) {
+      throw new IllegalStateException("latency can only be measured on a sound card");
+    }
+    LineAudioSink line = (LineAudioSink) sink;
+    long start = System.nanoTime();
+    play(new double[settings.blockFrames() * settings.format().channels()]);
+    try {
+      engine.flush();
+    }
+    catch (IOException e) {
+      throw new IllegalStateException("audio output failed", e);
+    }
+    long target = queued / settings.format().channels();
+    while (line.framePosition() < target) {
+      try {
+        Thread.sleep(1);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    return (System.nanoTime() - start) / 1e9;
+  }
 
   /**
-   * Closes standard audio.
+   * Returns how many times the sound card ran out of samples because play() was not called quickly enough.
+   * Each underrun is an audible gap. The count starts again when {@link #configure} reopens the line, and is
+   * always 0 for the null and file sinks, which are not paced in real time and so cannot run dry.
+   *
+   * @return the number of underruns so far
    */
-  public static void close() {
-    line.drain();
-    line.stop();
+  public static long underruns() {
+    return sink instanceof LineAudioSink ? ((LineAudioSink) sink).underruns() : 0;
   }
 
   /**
    * Writes one sample (between -1.0 and +1.0) to standard audio.
-   * If the sample is outside the range, it will be clipped.
+   * If the sample is outside the range, it will be clipped, unless the output format is 32-bit float.
+   * With more than one channel, consecutive samples go to consecutive channels.
    *
    * @param  sample the sample to play
    * @throws IllegalArgumentException if the sample is {@code Double.NaN}
    */
   public static void play(double sample) {
-
-    // clip if outside [-1, +1]
     if (Double.isNaN(sample)) throw new IllegalArgumentException("sample is NaN");
-    if (sample < -1.0) sample = -1.0;
-    if (sample > +1.0) sample = +1.0;
 
-    // convert to bytes
-    short s = (short) (MAX_16_BIT * sample);
-    buffer[bufferSize++] = (byte) s;
-    buffer[bufferSize++] = (byte) (s >> 8);   // little Endian
-
-    // send to sound card if buffer is full
-    if (bufferSize >= buffer.length) {
-      line.write(buffer, 0, buffer.length);
-      bufferSize = 0;
+    // queue for the output thread, which clips, converts to bytes and sends to the sound card
+    try {
+      engine.write(sample);
+      queued++;
+    }
+    catch (IOException e) {
+      throw new IllegalStateException("audio output failed", e);
     }
   }
 
   /**
    * Writes the array of samples (between -1.0 and +1.0) to standard audio.
-   * If a sample is outside the range, it will be clipped.
+   * If a sample is outside the range, it will be clipped, unless the output format is 32-bit float.
+   * With more than one channel, the array holds interleaved frames: one sample for each channel in turn.
    *
    * @param  samples the array of samples to play
    * @throws IllegalArgumentException if any sample is {@code Double.NaN}
@@ -145,8 +319,21 @@ public final class StdAudio {
    */
   public static void play(double[] samples) {
     if (samples == null) throw new IllegalArgumentException("argument to play() is null");
-    for (int i = 0; i < samples.length; i++) {
-      play(samples[i]);
+    try {
+      engine.write(samples, 0, samples.length);
+      queued += samples.length;
+    }
+    catch (IllegalArgumentException e) {
+      // the engine checks for NaN as it copies, and keeps every sample before the first one
+      int played = 0;
+      while (!Double.isNaN(samples[played])) {
+        played++;
+      }
+      queued += played;
+      throw e;
+    }
+    catch (IOException e) {
+      throw new IllegalStateException("audio output failed", e);
     }
   }
 
@@ -158,6 +345,22 @@ public final class StdAudio {
    * @return the array of samples
    */
   public static double[] read(String filename) {
+    // .wav files on disk are decoded straight from a mapping, without a byte[] copy
+    File file = new File(filename);
+    if (file.exists() && (filename.endsWith(".wav") || filename.endsWith(".WAV"))) {
+      try (WavReader reader = new WavReader(file)) {
+        if (reader.samples() > Integer.MAX_VALUE) {
+          throw new IllegalArgumentException("'" + filename + "' is too long to read into an array");
+        }
+        double[] d = new double[(int) reader.samples()];
+        reader.read(d, 0, d.length);
+        return d;
+      }
+      catch (IOException e) {
+        // not a format WavReader handles; fall back to the general reader below
+      }
+    }
+
     byte[] data = readByte(filename);
     int n = data.length;
     double[] d = new double[n/2];
@@ -219,24 +422,28 @@ public final class StdAudio {
       throw new IllegalArgumentException("samples[] is null");
     }
 
+    // .wav files are streamed through a sink, without a second copy of the samples
+    if (filename.endsWith(".wav") || filename.endsWith(".WAV")) {
+      try (WavFileSink sink = new WavFileSink(filename)) {
+        sink.write(samples);
+      }
+      catch (IOException ioe) {
+        throw new IllegalArgumentException("unable to save file '" + filename + "'", ioe);
+      }
+      return;
+    }
+
     // assumes 44,100 samples per second
     // use 16-bit audio, mono, signed PCM, little Endian
-    AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
-    byte[] data = new byte[2 * samples.length];
-    for (int i = 0; i < samples.length; i++) {
-      int temp = (short) (samples[i] * MAX_16_BIT);
-      data[2*i + 0] = (byte) temp;
-      data[2*i + 1] = (byte) (temp >> 8);
-    }
+    AudioFormat format = PcmFormat.format();
+    byte[] data = new byte[PcmFormat.BYTES_PER_SAMPLE * samples.length];
+    new PcmEncoder().encode(samples, 0, samples.length, PcmEncoder.view(ByteBuffer.wrap(data)));
 
     // now save the file
     try {
       ByteArrayInputStream bais = new ByteArrayInputStream(data);
       AudioInputStream ais = new AudioInputStream(bais, format, samples.length);
-      if (filename.endsWith(".wav") || filename.endsWith(".WAV")) {
-        AudioSystem.write(ais, AudioFileFormat.Type.WAVE, new File(filename));
-      }
-      else if (filename.endsWith(".au") || filename.endsWith(".AU")) {
+      if (filename.endsWith(".au") || filename.endsWith(".AU")) {
         AudioSystem.write(ais, AudioFileFormat.Type.AU, new File(filename));
       }
       else {
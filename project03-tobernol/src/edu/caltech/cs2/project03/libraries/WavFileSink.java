@@ -0,0 +1,180 @@
+package edu.caltech.cs2.project03.libraries;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *  Streams samples to a .wav file, by default in the {@link PcmFormat} encoding, or in any {@link OutputFormat}
+ *  with interleaved samples. The RIFF header is written up front with
+ *  zero sizes, samples are encoded a block at a time by a {@link PcmEncoder} into one reused direct buffer and
+ *  appended through a FileChannel, and the size fields are patched in place on close. Memory use does not
+ *  depend on the length of the recording.
+ *
+ *  Mono and stereo 16-bit files get the plain 44-byte header. Float files add the two-byte extension size to
+ *  the fmt chunk and a fact chunk holding the frame count, which the format requires for anything but integer
+ *  PCM. Files with more than two channels use WAVE_FORMAT_EXTENSIBLE, whose channel mask assigns the channels
+ *  to speakers in the standard order: front left, front right, front center, low frequency, back left, and so on.
+ */
+public class WavFileSink implements AudioSink {
+  private static final short WAVE_FORMAT_PCM = 1;
+  private static final short WAVE_FORMAT_IEEE_FLOAT = 3;
+  private static final short WAVE_FORMAT_EXTENSIBLE = (short) 0xFFFE;
+  // the subformat GUIDs of the extensible format are the plain format tag followed by these bytes
+  private static final byte[] SUBFORMAT_GUID_TAIL = {
+      0x00, 0x00, 0x10, 0x00, (byte) 0x80, 0x00, 0x00, (byte) 0xAA, 0x00, 0x38, (byte) 0x9B, 0x71
+  };
+  // the channel mask has one bit for each of the 18 standard speaker positions
+  private static final int MAX_MASKED_CHANNELS = 18;
+  private static final int BUFFER_BYTES = 1 << 16;
+  // offset of the RIFF size, which counts every byte after it
+  private static final int RIFF_SIZE_OFFSET = 4;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private final OutputFormat format;
+  private final PcmEncoder encoder;
+  // offset of the fact chunk's frame count, or -1 if the file has no fact chunk
+  private final int factOffset;
+  private final int dataSizeOffset;
+  private final int headerBytes;
+  private long dataBytes;
+  private boolean closed;
+
+  public WavFileSink(String filename) throws IOException {
+    this(new File(filename));
+  }
+
+  public WavFileSink(File file) throws IOException {
+    this(file, PcmEncoder.Dither.NONE);
+  }
+
+  /**
+   * @param  file the file to write
+   * @param  dither how to treat the rounding error of the 16-bit encoding
+   * @throws IOException if the file cannot be opened
+   */
+  public WavFileSink(File file, PcmEncoder.Dither dither) throws IOException {
+    this(file, OutputFormat.MONO_16, dither);
+  }
+
+  /**
+   * @param  file the file to write
+   * @param  format encoding and channel count of the file
+   * @param  dither how to treat the rounding error of 16-bit encoding
+   * @throws IOException if the file cannot be opened
+   */
+  public WavFileSink(File file, OutputFormat format, PcmEncoder.Dither dither) throws IOException {
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    this.format = format;
+    this.encoder = new PcmEncoder(format, dither);
+    this.dataBytes = 0;
+    this.closed = false;
+
+    boolean isFloat = format.encoding() == OutputFormat.Encoding.FLOAT_32;
+    boolean isExtensible = format.channels() > 2;
+    short formatTag = isFloat ? WAVE_FORMAT_IEEE_FLOAT : WAVE_FORMAT_PCM;
+    int extensionBytes = isExtensible ? 22 : isFloat ? 0 : -1;
+    this.buffer.put("RIFF".getBytes()).putInt(0).put("WAVE".getBytes())
+            .put("fmt ".getBytes()).putInt(extensionBytes < 0 ? 16 : 18 + extensionBytes)
+            .putShort(isExtensible ? WAVE_FORMAT_EXTENSIBLE : formatTag)
+            .putShort((short) format.channels())
+            .putInt(PcmFormat.SAMPLE_RATE)
+            .putInt(PcmFormat.SAMPLE_RATE * format.bytesPerFrame())
+            .putShort((short) format.bytesPerFrame())
+            .putShort((short) (8 * format.bytesPerSample()));
+    if (extensionBytes >= 0) {
+      this.buffer.putShort((short) extensionBytes);
+    }
+    if (isExtensible) {
+      this.buffer.putShort((short) (8 * format.bytesPerSample()))
+              .putInt(format.channels() <= MAX_MASKED_CHANNELS ? (1 << format.channels()) - 1 : 0)
+              .putShort(formatTag).putShort((short) 0).put(SUBFORMAT_GUID_TAIL);
+    }
+    if (isFloat) {
+      this.buffer.put("fact".getBytes()).putInt(4);
+      this.factOffset = this.buffer.position();
+      this.buffer.putInt(0);
+    }
+    else {
+      this.factOffset = -1;
+    }
+    this.buffer.put("data".getBytes());
+    this.dataSizeOffset = this.buffer.position();
+    this.buffer.putInt(0);
+    this.headerBytes = this.buffer.position();
+    this.flush();
+  }
+
+  @Override
+  public void write(double[] samples, int off, int len) throws IOException {
+    if (this.closed) {
+      throw new IOException("sink is closed");
+    }
+    int bytesPerSample = this.format.bytesPerSample();
+    // sizes are unsigned 32-bit fields, and the RIFF size counts the header after it on top of the data
+    if (this.dataBytes + (long) len * bytesPerSample > 0xFFFFFFFFL - (this.headerBytes - 8)) {
+      throw new IOException("recording is too long for a .wav file");
+    }
+    while (len > 0) {
+      if (this.buffer.remaining() < bytesPerSample) {
+        this.flush();
+      }
+      int n = Math.min(len, this.buffer.remaining() / bytesPerSample);
+      // counted only once encoded: a chunk with a NaN is rejected whole, and must not reach the header
+      this.encoder.encode(samples, off, n, this.buffer);
+      this.dataBytes += (long) n * bytesPerSample;
+      off += n;
+      len -= n;
+    }
+  }
+
+  // writes everything in the buffer and clears it
+  private void flush() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+
+  // overwrites the unsigned 32-bit field at offset in the file
+  private void patch(int offset, long value) throws IOException {
+    this.buffer.putInt((int) value).flip();
+    this.channel.write(this.buffer, offset);
+    this.buffer.clear();
+  }
+
+  /**
+   * Returns the number of samples written so far, counting each channel's sample in a frame separately.
+   */
+  public long samples() {
+    return this.dataBytes / this.format.bytesPerSample();
+  }
+
+  /**
+   * Flushes the remaining samples, fills in the header sizes and closes the file. Closing twice has no effect.
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    try {
+      this.flush();
+      this.patch(RIFF_SIZE_OFFSET, this.headerBytes - 8 + this.dataBytes);
+      if (this.factOffset >= 0) {
+        this.patch(this.factOffset, this.dataBytes / this.format.bytesPerFrame());
+      }
+      this.patch(this.dataSizeOffset, this.dataBytes);
+    } finally {
+      this.channel.close();
+    }
+  }
+}
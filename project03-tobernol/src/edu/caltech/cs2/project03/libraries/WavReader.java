@@ -0,0 +1,221 @@
+package edu.caltech.cs2.project03.libraries;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ *  Reads the samples of a 16-bit mono PCM .wav file through a memory-mapped FileChannel. The data chunk is
+ *  mapped one window at a time and decoded straight into the caller's array, so scanning a file of any size
+ *  needs a constant amount of heap and never copies the whole file.
+ */
+public class WavReader implements Closeable {
+  private static final int DEFAULT_WINDOW_SAMPLES = 1 << 25;    // 64 MB of 16-bit samples
+
+  private final FileChannel channel;
+  private final long dataStart;
+  private final long samples;
+  private final int sampleRate;
+  private final int windowSamples;
+  private ShortBuffer window;
+  private long windowStart;
+  private long position;
+
+  public WavReader(String filename) throws IOException {
+    this(new File(filename));
+  }
+
+  public WavReader(File file) throws IOException {
+    this(file, DEFAULT_WINDOW_SAMPLES);
+  }
+
+  /**
+   * @param  file the .wav file to read
+   * @param  windowSamples number of samples mapped at once
+   * @throws IOException if the file cannot be read or is not 16-bit mono PCM
+   */
+  public WavReader(File file, int windowSamples) throws IOException {
+    if (windowSamples < 1) {
+      throw new IllegalArgumentException("windowSamples must be positive");
+    }
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    this.windowSamples = windowSamples;
+    this.window = null;
+    this.windowStart = 0;
+    this.position = 0;
+    int rate = -1;
+    long pos = 12;
+    long size;
+    try {
+      ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+      this.readFully(header, 0);
+      if (header.getInt(0) != tag("RIFF") || header.getInt(8) != tag("WAVE")) {
+        throw new IOException("not a .wav file: " + file);
+      }
+
+      // walk the chunks until the data chunk, checking the format chunk on the way
+      ByteBuffer chunk = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+      while (true) {
+        chunk.clear().limit(8);
+        this.readFully(chunk, pos);
+        int id = chunk.getInt(0);
+        size = chunk.getInt(4) & 0xFFFFFFFFL;
+        if (id == tag("data")) {
+          break;
+        }
+        if (id == tag("fmt ")) {
+          chunk.clear();
+          this.readFully(chunk, pos + 8);
+          if (chunk.getShort(0) != 1 || chunk.getShort(2) != 1 || chunk.getShort(14) != 16) {
+            throw new IOException("only 16-bit mono PCM .wav files are supported: " + file);
+          }
+          rate = chunk.getInt(4);
+        }
+        pos += 8 + size + (size & 1);
+      }
+      if (rate == -1) {
+        throw new IOException("data chunk before format chunk: " + file);
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      this.channel.close();
+      throw e;
+    }
+    this.sampleRate = rate;
+    this.dataStart = pos + 8;
+    // a writer that never patched its sizes leaves them 0 or too large; trust the file length instead
+    long available = this.channel.size() - this.dataStart;
+    this.samples = (size == 0 || size > available ? available : size) / PcmFormat.BYTES_PER_SAMPLE;
+  }
+
+  private static int tag(String id) {
+    return ByteBuffer.wrap(id.getBytes()).order(ByteOrder.LITTLE_ENDIAN).getInt();
+  }
+
+  private void readFully(ByteBuffer dst, long pos) throws IOException {
+    while (dst.hasRemaining()) {
+      int n = this.channel.read(dst, pos);
+      if (n < 0) {
+        throw new IOException("unexpected end of file");
+      }
+      pos += n;
+    }
+  }
+
+  /**
+   * Returns the total number of samples in the file.
+   */
+  public long samples() {
+    return this.samples;
+  }
+
+  public int sampleRate() {
+    return this.sampleRate;
+  }
+
+  /**
+   * Returns the index of the next sample read() will return.
+   */
+  public long position() {
+    return this.position;
+  }
+
+  /**
+   * Moves to a sample, so the next read() starts there.
+   *
+   * @param  sample index of the sample
+   * @throws IllegalArgumentException if the index is outside [0, samples()]
+   */
+  public void seek(long sample) {
+    if (sample < 0 || sample > this.samples) {
+      throw new IllegalArgumentException("sample " + sample + " out of bounds for " + this.samples + " samples");
+    }
+    this.position = sample;
+  }
+
+  /**
+   * Decodes up to len samples from the current position into dst[off..off + len).
+   *
+   * @param  dst array to receive the samples, between -1.0 and +1.0
+   * @param  off index of the first sample to write
+   * @param  len maximum number of samples to read
+   * @return number of samples read, or -1 at the end of the file
+   * @throws IOException if the file cannot be mapped
+   */
+  public int read(double[] dst, int off, int len) throws IOException {
+    if (this.position == this.samples) {
+      return len == 0 ? 0 : -1;
+    }
+    int total = (int) Math.min(len, this.samples - this.position);
+    int done = 0;
+    while (done < total) {
+      ShortBuffer window = this.mapWindow();
+      window.position((int) (this.position - this.windowStart));
+      int n = Math.min(total - done, window.remaining());
+      for (int i = 0; i < n; i++) {
+        dst[off + done + i] = PcmFormat.decode(window.get());
+      }
+      done += n;
+      this.position += n;
+    }
+    return total;
+  }
+
+  // the mapped window holding the current position, remapped when the position leaves it
+  private ShortBuffer mapWindow() throws IOException {
+    if (this.window == null || this.position < this.windowStart
+            || this.position >= this.windowStart + this.window.capacity()) {
+      this.windowStart = this.position - this.position % this.windowSamples;
+      long count = Math.min(this.windowSamples, this.samples - this.windowStart);
+      this.window = this.channel.map(FileChannel.MapMode.READ_ONLY,
+              this.dataStart + this.windowStart * PcmFormat.BYTES_PER_SAMPLE, count * PcmFormat.BYTES_PER_SAMPLE)
+              .order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+    }
+    return this.window;
+  }
+
+  /**
+   * Iterates over the rest of the file in blocks of blockSize samples; the last block may be shorter. Every
+   * block is a fresh array, so blocks may be kept; read() into one reused array avoids the allocation.
+   *
+   * @param  blockSize number of samples per block
+   * @return iterator over the blocks
+   */
+  public Iterator<double[]> blocks(int blockSize) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("blockSize must be positive");
+    }
+    return new Iterator<double[]>() {
+      public boolean hasNext() {
+        return WavReader.this.position < WavReader.this.samples;
+      }
+
+      public double[] next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        double[] block = new double[(int) Math.min(blockSize, WavReader.this.samples - WavReader.this.position)];
+        try {
+          WavReader.this.read(block, 0, block.length);
+        }
+        catch (IOException e) {
+          throw new IllegalStateException("could not read block", e);
+        }
+        return block;
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.window = null;
+    this.channel.close();
+  }
+}
@@ -7,6 +7,8 @@ import edu.caltech.cs2.interfaces.ICollection;
 import edu.caltech.cs2.interfaces.IQueue;
 import edu.caltech.cs2.interfaces.IDeque;
 import edu.caltech.cs2.interfaces.IStack;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.collection.IsIterableContainingInOrder;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -20,7 +22,7 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static edu.caltech.cs2.project03.Project03TestOrdering.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @Tag("C")
@@ -76,7 +78,7 @@ public class ArrayDequeTests implements DequeTests, StackTests, QueueTests {
   @DisplayName("The overall number of fields is small")
   @Test
   public void testSmallNumberOfFields() {
-    Reflection.assertFieldsLessThan(ArrayDeque.class, "private", 5);
+    Reflection.assertFieldsLessThan(ArrayDeque.class, "private", 7);
   }
 
   @Order(classSpecificTestLevel)
@@ -104,7 +106,11 @@ public class ArrayDequeTests implements DequeTests, StackTests, QueueTests {
             "peekBack",
             "iterator",
             "size",
-            "toString"
+            "toString",
+            "capacity",
+            "peakSize",
+            "resizeCount",
+            "trimToSize"
     ));
   }
 
@@ -116,6 +122,77 @@ public class ArrayDequeTests implements DequeTests, StackTests, QueueTests {
   }
 
 
+  // CAPACITY POLICY TESTS --------------------------------------------
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("Capacity grows in powers of two and shrinks back after draining")
+  @Test
+  public void testGrowAndShrink() {
+    ArrayDeque<Integer> me = new ArrayDeque<>();
+    assertEquals(16, me.capacity(), "default capacity should round up to a power of two");
+    for (int i = 0; i < 1000; i++) {
+      me.addBack(i);
+    }
+    assertEquals(1024, me.capacity(), "capacity should double as elements are added");
+    assertEquals(1000, me.peakSize(), "peak size should track the largest size");
+    int grown = me.resizeCount();
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, me.removeFront(), "elements should come out in order while shrinking");
+    }
+    assertEquals(16, me.capacity(), "capacity should shrink back to the minimum once drained");
+    assertTrue(me.resizeCount() > grown, "shrinking should be counted as resizes");
+    assertEquals(1000, me.peakSize(), "peak size should not drop when the deque drains");
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("Alternating add/remove at the shrink boundary does not resize every call")
+  @Test
+  public void testShrinkHysteresis() {
+    ArrayDeque<Integer> me = new ArrayDeque<>(1);
+    for (int i = 0; i < 64; i++) {
+      me.addBack(i);
+    }
+    while (me.size() > 17) {
+      me.removeBack();
+    }
+    int resizes = me.resizeCount();
+    for (int i = 0; i < 100; i++) {
+      me.addBack(i);
+      me.removeBack();
+    }
+    assertEquals(resizes, me.resizeCount(), "add/remove pairs should not resize");
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("A hard maximum capacity rejects further elements")
+  @Test
+  public void testMaxCapacity() {
+    ArrayDeque<Integer> me = new ArrayDeque<>(4, new HysteresisCapacityPolicy(4, 8));
+    for (int i = 0; i < 8; i++) {
+      assertTrue(me.enqueue(i), "enqueue below the maximum capacity should succeed");
+    }
+    assertFalse(me.enqueue(8), "enqueue at the maximum capacity should fail");
+    assertFalse(me.push(8), "push at the maximum capacity should fail");
+    assertThrows(IllegalStateException.class, () -> me.addBack(8), "addBack at the maximum capacity should throw");
+    assertEquals(8, me.size(), "rejected elements should not be stored");
+    assertEquals(8, me.capacity(), "capacity should not exceed the maximum");
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("trimToSize() keeps elements and releases unused capacity")
+  @Test
+  public void testTrimToSize() {
+    java.util.ArrayDeque<Integer> reference = new java.util.ArrayDeque<>();
+    ArrayDeque<Integer> me = new ArrayDeque<>(256);
+    for (int i = 0; i < 5; i++) {
+      me.addFront(i);
+      reference.addFirst(i);
+    }
+    me.trimToSize();
+    assertEquals(8, me.capacity(), "trimToSize should shrink to the next power of two");
+    MatcherAssert.assertThat(me, IsIterableContainingInOrder.contains(reference.toArray()));
+  }
+
   // TOSTRING TESTS ---------------------------------------------------
 
   @Order(toStringTestLevel)
@@ -144,7 +221,7 @@ public class ArrayDequeTests implements DequeTests, StackTests, QueueTests {
   // TIME COMPLEXITY TESTS ------------------------------------------------
 
   @Order(complexityTestLevel)
-  @DisplayName("addFront() and removeFront() take linear time")
+  @DisplayName("addFront() and removeFront() take constant time")
   @Test()
   public void testFrontDequeOperationComplexity() {
     Function<Integer, IDeque<Integer>> provide = (Integer numElements) -> {
@@ -157,12 +234,12 @@ public class ArrayDequeTests implements DequeTests, StackTests, QueueTests {
     Consumer<IDeque<Integer>> addFront = (IDeque<Integer> q) -> q.addFront(0);
     Consumer<IDeque<Integer>> removeFront = (IDeque<Integer> q) -> q.removeFront();
 
-    RuntimeInstrumentation.assertAtMost("addFront", RuntimeInstrumentation.ComplexityType.LINEAR, provide, addFront, 8);
-    RuntimeInstrumentation.assertAtMost("removeFront", RuntimeInstrumentation.ComplexityType.LINEAR, provide, removeFront, 8);
+    RuntimeInstrumentation.assertAtMost("addFront", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, addFront, 8);
+    RuntimeInstrumentation.assertAtMost("removeFront", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, removeFront, 8);
   }
 
   @Order(complexityTestLevel)
-  @DisplayName("addBack() and removeBack() take linear time")
+  @DisplayName("addBack() and removeBack() take constant time")
   @Test
   public void testBackDequeOperationComplexity() {
     Function<Integer, IDeque<Integer>> provide = (Integer numElements) -> {
@@ -175,12 +252,12 @@ public class ArrayDequeTests implements DequeTests, StackTests, QueueTests {
     Consumer<IDeque<Integer>> addBack = (IDeque<Integer> q) -> q.addBack(0);
     Consumer<IDeque<Integer>> removeBack = (IDeque<Integer> q) -> q.removeBack();
 
-    RuntimeInstrumentation.assertAtMost("addBack", RuntimeInstrumentation.ComplexityType.LINEAR, provide, addBack, 8);
-    RuntimeInstrumentation.assertAtMost("removeBack", RuntimeInstrumentation.ComplexityType.LINEAR, provide, removeBack, 8);
+    RuntimeInstrumentation.assertAtMost("addBack", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, addBack, 8);
+    RuntimeInstrumentation.assertAtMost("removeBack", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, removeBack, 8);
   }
 
   @Order(complexityTestLevel)
-  @DisplayName("enqueue() and dequeue() take linear time")
+  @DisplayName("enqueue() and dequeue() take constant time")
   @Test
   public void testQueueOperationComplexity() {
     Function<Integer, IQueue<Integer>> provide = (Integer numElements) -> {
@@ -193,8 +270,8 @@ public class ArrayDequeTests implements DequeTests, StackTests, QueueTests {
     Consumer<IQueue<Integer>> enqueue = (IQueue<Integer> q) -> q.enqueue(0);
     Consumer<IQueue<Integer>> dequeue = (IQueue<Integer> q) -> q.dequeue();
 
-    RuntimeInstrumentation.assertAtMost("enqueue", RuntimeInstrumentation.ComplexityType.LINEAR, provide, enqueue, 8);
-    RuntimeInstrumentation.assertAtMost("dequeue", RuntimeInstrumentation.ComplexityType.LINEAR, provide, dequeue, 8);
+    RuntimeInstrumentation.assertAtMost("enqueue", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, enqueue, 8);
+    RuntimeInstrumentation.assertAtMost("dequeue", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, dequeue, 8);
   }
 
   @Order(complexityTestLevel)
@@ -0,0 +1,46 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.interfaces.IFixedSizeQueue;
+
+/**
+ * Hot-path microbenchmark for CircularArrayFixedSizeQueue: the dequeue/peek/enqueue cycle of a guitar string
+ * tic(), plus the size()/isFull() checks callers make around it. Run with
+ * java edu.caltech.cs2.datastructures.CircularArrayFixedSizeQueueBenchmark [capacity] [operations].
+ */
+public class CircularArrayFixedSizeQueueBenchmark {
+  private static final int ROUNDS = 10;
+  private static final int WARMUP_ROUNDS = 5;
+
+  public static void main(String[] args) {
+    int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 401;
+    int operations = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+
+    IFixedSizeQueue<Integer> queue = new CircularArrayFixedSizeQueue<>(capacity);
+    Integer[] values = new Integer[256];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i;
+    }
+    for (int i = 0; i < capacity; i++) {
+      queue.enqueue(values[i & 255]);
+    }
+
+    long checksum = 0;
+    double best = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < operations; i++) {
+        Integer front = queue.dequeue();
+        checksum += front + queue.peek() + queue.size();
+        if (!queue.isFull()) {
+          queue.enqueue(values[i & 255]);
+        }
+      }
+      double nsPerOp = (double) (System.nanoTime() - start) / operations;
+      if (round >= WARMUP_ROUNDS) {
+        best = Math.min(best, nsPerOp);
+      }
+    }
+    System.out.printf("capacity %d: %.2f ns per tic cycle (best of %d rounds, checksum %d)%n",
+            capacity, best, ROUNDS - WARMUP_ROUNDS, checksum);
+  }
+}
@@ -5,6 +5,8 @@ import edu.caltech.cs2.helpers.Reflection;
 import edu.caltech.cs2.helpers.RuntimeInstrumentation;
 import edu.caltech.cs2.interfaces.IFixedSizeQueue;
 import edu.caltech.cs2.interfaces.IQueue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.collection.IsIterableContainingInOrder;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -16,7 +18,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static edu.caltech.cs2.project03.Project03TestOrdering.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @Tag("B")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -82,7 +84,9 @@ public class CircularArrayFixedSizeQueueTests implements FixedSizeQueueTests {
             "size",
             "isFull",
             "capacity",
-            "toString"
+            "toString",
+            "enqueueAll",
+            "drainTo"
     ));
   }
 
@@ -94,6 +98,39 @@ public class CircularArrayFixedSizeQueueTests implements FixedSizeQueueTests {
   }
 
 
+  @Order(classSpecificTestLevel)
+  @DisplayName("drainTo(...) releases every drained slot, across the wrap point")
+  @Test
+  public void testDrainReleasesSlots() {
+    IFixedSizeQueue<Object> me = newFixedSizeQueue(5);
+    for (int i = 0; i < 3; i++) {
+      me.enqueue(-1);
+      me.dequeue();
+    }
+    me.enqueueAll(new Object[]{"a", "b", "c", "d", "e"}, 0, 5);
+    assertEquals(4, me.drainTo(new Object[4], 4));
+    Object[] data = Reflection.getFieldValue(CircularArrayFixedSizeQueue.class, "data", me);
+    assertEquals(1, Arrays.stream(data).filter(Objects::nonNull).count(), "only the undrained element should remain");
+    assertEquals("e", me.peek());
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("Null elements are counted and iterated like any other element")
+  @Test
+  public void testNullElements() {
+    IFixedSizeQueue<Object> me = newFixedSizeQueue(3);
+    assertTrue(me.enqueue(null), "enqueue of null should succeed");
+    assertTrue(me.enqueue("a"), "enqueue should succeed");
+    assertTrue(me.enqueue(null), "enqueue of null should succeed");
+    assertEquals(3, me.size(), "null elements should be counted");
+    assertTrue(me.isFull(), "queue holding null elements should be full");
+    assertFalse(me.enqueue("b"), "enqueue into a full queue should fail");
+    MatcherAssert.assertThat(me, IsIterableContainingInOrder.contains(null, "a", null));
+    assertNull(me.dequeue(), "dequeue should return the null element");
+    assertEquals(2, me.size(), "size should drop after dequeueing a null element");
+    assertEquals("[a, null]", me.toString(), "toString should include null elements");
+  }
+
   // TOSTRING TESTS ---------------------------------------------------
 
   @Order(toStringTestLevel)
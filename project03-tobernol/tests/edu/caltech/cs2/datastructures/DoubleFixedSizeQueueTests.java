@@ -0,0 +1,155 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.helpers.Reflection;
+import edu.caltech.cs2.interfaces.IDoubleFixedSizeQueue;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Queue;
+import java.util.Random;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("B")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class DoubleFixedSizeQueueTests {
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("There are no public fields")
+  @Test
+  public void testNoPublicFields() {
+    Reflection.assertNoPublicFields(DoubleFixedSizeQueue.class);
+  }
+
+  @Order(fixedSizeQueueLevel)
+  @DisplayName("Empty peek() and dequeue() throw")
+  @Test
+  public void testEmptyAccess() {
+    IDoubleFixedSizeQueue me = new DoubleFixedSizeQueue(4);
+    assertThrows(IllegalStateException.class, me::peek, "empty peek should throw");
+    assertThrows(IllegalStateException.class, me::dequeue, "empty dequeue should throw");
+    assertThrows(IndexOutOfBoundsException.class, () -> me.get(0), "get on empty queue should throw");
+  }
+
+  @Order(fixedSizeQueueLevel)
+  @DisplayName("Overflow test for enqueue(...)")
+  @ParameterizedTest(name = "Test randomly enqueue()ing/dequeue()ing {1} random numbers with seed = {0} and fixed array size = {2}")
+  @CsvSource({
+          "97, 3000, 100", "38, 5000, 10", "12, 500, 1"
+  })
+  public void overflowTestEnqueue(int seed, int numVals, int queueSize) {
+    Random r = new Random(seed);
+    IDoubleFixedSizeQueue me = new DoubleFixedSizeQueue(queueSize);
+    Queue<Double> reference = new java.util.ArrayDeque<>();
+    for (int i = 0; i < numVals; i++) {
+      double num = r.nextDouble();
+      assertEquals(reference.size() == queueSize, me.isFull(), "isFull() is incorrect");
+      assertEquals(reference.size() < queueSize, me.enqueue(num), "enqueue result is incorrect");
+      if (reference.size() < queueSize) {
+        reference.add(num);
+      }
+      assertEquals(reference.peek(), me.peek(), "return values of peek()s are not equal");
+      if (r.nextBoolean()) {
+        assertEquals(reference.remove(), me.dequeue(), "return values of dequeue()s are not equal");
+      }
+      assertEquals(reference.size(), me.size(), "size()s are not equal");
+      int idx = 0;
+      for (double expected : reference) {
+        assertEquals(expected, me.get(idx++), "get(" + (idx - 1) + ") does not match queue order");
+      }
+      assertEquals(queueSize, me.capacity(), "capacity does not match expected value");
+    }
+  }
+
+  @Order(fixedSizeQueueLevel)
+  @DisplayName("Bulk operations match element-at-a-time operations across the wrap point")
+  @ParameterizedTest(name = "Test bulk transfers with seed = {0} and fixed array size = {1}")
+  @CsvSource({
+          "97, 10", "38, 1", "12, 37"
+  })
+  public void testBulkOperations(int seed, int queueSize) {
+    Random r = new Random(seed);
+    IDoubleFixedSizeQueue me = new DoubleFixedSizeQueue(queueSize);
+    Queue<Double> reference = new java.util.ArrayDeque<>();
+    double[] src = new double[queueSize * 2];
+    double[] dst = new double[queueSize * 2];
+    for (int round = 0; round < 200; round++) {
+      int off = r.nextInt(queueSize);
+      int len = r.nextInt(queueSize * 2 - off + 1);
+      for (int i = 0; i < src.length; i++) {
+        src[i] = r.nextDouble();
+      }
+      int added = me.enqueueAll(src, off, len);
+      assertEquals(Math.min(len, queueSize - reference.size()), added, "enqueueAll added the wrong number of elements");
+      for (int i = 0; i < added; i++) {
+        reference.add(src[off + i]);
+      }
+      assertEquals(reference.size(), me.size(), "size()s are not equal");
+
+      int max = r.nextInt(queueSize + 1);
+      int removed = me.drainTo(dst, max);
+      assertEquals(Math.min(max, reference.size()), removed, "drainTo removed the wrong number of elements");
+      for (int i = 0; i < removed; i++) {
+        assertEquals(reference.remove(), dst[i], "drained elements should be in queue order");
+      }
+
+      if (r.nextBoolean()) {
+        double[] next = {0};
+        int filled = me.fill(() -> next[0]++);
+        assertEquals(queueSize - reference.size(), filled, "fill should add until full");
+        for (int i = 0; i < filled; i++) {
+          reference.add((double) i);
+        }
+        assertTrue(me.isFull(), "queue should be full after fill");
+      }
+      else {
+        double[] next = {0};
+        int limit = r.nextInt(queueSize + 1);
+        int filled = me.fill(() -> next[0]++, limit);
+        assertEquals(Math.min(limit, queueSize - reference.size()), filled, "fill should add at most max elements");
+        assertEquals(filled, (int) next[0], "fill should only call the supplier for elements it adds");
+        for (int i = 0; i < filled; i++) {
+          reference.add((double) i);
+        }
+      }
+      int idx = 0;
+      for (double expected : reference) {
+        assertEquals(expected, me.get(idx++), "queue contents do not match");
+      }
+    }
+  }
+
+  @Order(fixedSizeQueueLevel)
+  @DisplayName("enqueueAll(...), drainTo(...) and fill(...) reject negative counts")
+  @Test
+  public void testBulkOperationsNegative() {
+    IDoubleFixedSizeQueue me = new DoubleFixedSizeQueue(4);
+    me.enqueue(1.0);
+    me.enqueue(2.0);
+    assertThrows(IllegalArgumentException.class, () -> me.enqueueAll(new double[1], 0, -1));
+    assertThrows(IllegalArgumentException.class, () -> me.drainTo(new double[1], -1));
+    assertThrows(IllegalArgumentException.class, () -> me.fill(() -> fail("the supplier should not be called"), -1));
+    assertEquals(2, me.size(), "a rejected call should leave the queue unchanged");
+    assertEquals(1.0, me.get(0));
+    assertEquals(2.0, me.get(1));
+  }
+
+  @Order(toStringTestLevel)
+  @DisplayName("toString() matches java.util.ArrayDeque")
+  @Test
+  public void testToString() {
+    java.util.ArrayDeque<Double> reference = new java.util.ArrayDeque<>();
+    IDoubleFixedSizeQueue me = new DoubleFixedSizeQueue(3);
+    for (int i = 0; i < 7; i++) {
+      assertEquals(reference.toString(), me.toString(), "toString outputs should be the same");
+      if (me.isFull()) {
+        me.dequeue();
+        reference.remove();
+      }
+      me.enqueue(i * 0.5);
+      reference.add(i * 0.5);
+    }
+  }
+}
@@ -56,4 +56,28 @@ public interface FixedSizeQueueTests extends QueueTests {
             assertEquals(queueSize, me.capacity(), "capacity does not match expected value");
         }
     }
+
+    @Order(fixedSizeQueueLevel)
+    @DisplayName("Bulk operations respect the fixed capacity")
+    @ParameterizedTest(name = "Test bulk operations on a queue of capacity {0} holding {1} elements")
+    @CsvSource({
+            "10, 0", "10, 7", "1, 1"
+    })
+    default void testBulkCapacity(int queueSize, int initial) {
+        IFixedSizeQueue<Object> me = newFixedSizeQueue(queueSize);
+        for (int i = 0; i < initial; i++) {
+            me.enqueue(i);
+        }
+        Object[] src = new Object[queueSize * 2];
+        assertEquals(queueSize - initial, me.enqueueAll(src, 0, src.length), "enqueueAll should stop when full");
+        assertEquals(true, me.isFull(), "queue should be full");
+        assertEquals(0, me.enqueueAll(src, 0, 1), "enqueueAll into a full queue should add nothing");
+
+        Object[] dst = new Object[queueSize];
+        assertEquals(2 < queueSize ? 2 : queueSize, me.drainTo(dst, 2), "drainTo should respect max");
+        int[] counter = {0};
+        assertEquals(2 < queueSize ? 2 : queueSize, me.fill(() -> counter[0]++), "fill should refill the drained slots");
+        assertEquals(true, me.isFull(), "queue should be full after fill");
+        assertEquals(queueSize, me.size(), "size should equal capacity after fill");
+    }
 }
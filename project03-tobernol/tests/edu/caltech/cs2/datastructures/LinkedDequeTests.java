@@ -20,6 +20,8 @@ import java.util.function.Function;
 
 import static edu.caltech.cs2.project03.Project03TestOrdering.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Tag("C")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -70,7 +72,7 @@ public class LinkedDequeTests implements DequeTests, StackTests, QueueTests {
   @DisplayName("The overall number of fields is small")
   @Test
   public void testSmallNumberOfFields() {
-    Reflection.assertFieldsLessThan(LinkedDeque.class, "private", 4);
+    Reflection.assertFieldsLessThan(LinkedDeque.class, "private", 7);
   }
 
   @Order(classSpecificTestLevel)
@@ -110,6 +112,47 @@ public class LinkedDequeTests implements DequeTests, StackTests, QueueTests {
   }
 
 
+  @Order(classSpecificTestLevel)
+  @DisplayName("A node-recycling deque matches java.util.ArrayDeque and bounds its free list")
+  @ParameterizedTest(name = "Test {1} random operations with seed = {0} and at most {2} spare nodes")
+  @CsvSource({
+          "97, 3000, 8", "38, 5000, 0", "12, 2000, 64"
+  })
+  public void testNodeRecycling(int seed, int numOps, int maxSpare) {
+    Random r = new Random(seed);
+    java.util.ArrayDeque<Integer> reference = new java.util.ArrayDeque<>();
+    LinkedDeque<Integer> me = new LinkedDeque<>(maxSpare);
+    for (int i = 0; i < numOps; i++) {
+      switch (r.nextInt(4)) {
+        case 0:
+          me.addFront(i);
+          reference.addFirst(i);
+          break;
+        case 1:
+          me.addBack(i);
+          reference.addLast(i);
+          break;
+        case 2:
+          assertEquals(reference.pollFirst(), me.removeFront(), "return values of removeFront()s are not equal");
+          break;
+        default:
+          assertEquals(reference.pollLast(), me.removeBack(), "return values of removeBack()s are not equal");
+          break;
+      }
+      assertEquals(reference.size(), me.size(), "size()s are not equal");
+      assertEquals(reference.toString(), me.toString(), "toString outputs should be the same");
+      int spareCount = Reflection.getFieldValue(LinkedDeque.class, "spareCount", me);
+      assertTrue(spareCount <= maxSpare, "free list holds more nodes than its limit");
+    }
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("A negative free list limit is rejected")
+  @Test
+  public void testNegativeMaxSpare() {
+    assertThrows(IllegalArgumentException.class, () -> new LinkedDeque<Integer>(-1));
+  }
+
   // TOSTRING TESTS ---------------------------------------------------
 
   @Order(toStringTestLevel)
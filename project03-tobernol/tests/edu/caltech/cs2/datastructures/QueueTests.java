@@ -5,6 +5,7 @@ import edu.caltech.cs2.interfaces.IStack;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
@@ -64,4 +65,50 @@ public interface QueueTests {
             assertEquals(reference.size(), me.size(), "size()s are not equal");
         }
     }
+
+    @Order(queueTestLevel)
+    @DisplayName("Test enqueueAll(...) and drainTo(...) across the wrap point")
+    @ParameterizedTest(name = "Test bulk transfer of {1} elements after {0} enqueue/dequeue pairs")
+    @CsvSource({
+            "0, 8", "5, 8", "9, 3"
+    })
+    default void testBulkTransfer(int offset, int count) {
+        Queue<Object> reference = new java.util.ArrayDeque<>();
+        IQueue<Object> me = newQueue(10);
+        for (int i = 0; i < offset; i++) {
+            me.enqueue(-1);
+            me.dequeue();
+        }
+        me.enqueue(-2);
+        reference.add(-2);
+        Object[] src = new Object[count + 1];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = i;
+        }
+        assertEquals(count, me.enqueueAll(src, 1, count), "enqueueAll should add every element that fits");
+        for (int i = 1; i <= count; i++) {
+            reference.add(i);
+        }
+        assertEquals(reference.size(), me.size(), "size()s are not equal");
+        assertEquals(reference.peek(), me.peek(), "peeks should be the same");
+
+        Object[] dst = new Object[20];
+        assertEquals(reference.size(), me.drainTo(dst, dst.length), "drainTo should remove every element");
+        for (int i = 0; !reference.isEmpty(); i++) {
+            assertEquals(reference.remove(), dst[i], "drained elements should be in queue order");
+        }
+        assertEquals(0, me.size(), "queue should be empty after draining");
+        assertNull(me.peek(), "empty peek should return null");
+    }
+
+    @Order(queueTestLevel)
+    @DisplayName("Test enqueueAll(...) and drainTo(...) reject negative counts")
+    @Test
+    default void testBulkTransferNegative() {
+        IQueue<Object> me = newQueue(10);
+        me.enqueue(1);
+        assertThrows(IllegalArgumentException.class, () -> me.enqueueAll(new Object[1], 0, -1));
+        assertThrows(IllegalArgumentException.class, () -> me.drainTo(new Object[1], -1));
+        assertEquals(1, me.size(), "a rejected call should leave the queue unchanged");
+    }
 }
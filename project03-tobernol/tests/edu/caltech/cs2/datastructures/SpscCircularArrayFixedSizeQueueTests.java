@@ -0,0 +1,84 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.helpers.Reflection;
+import edu.caltech.cs2.interfaces.IFixedSizeQueue;
+import edu.caltech.cs2.interfaces.IQueue;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("B")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SpscCircularArrayFixedSizeQueueTests implements FixedSizeQueueTests {
+  private int DEFAULT_CAPACITY = 10;
+
+  public IQueue<Object> newQueue() {
+    return new SpscCircularArrayFixedSizeQueue<>(DEFAULT_CAPACITY);
+  }
+
+  public IQueue<Object> newQueue(int capacity) {
+    return new SpscCircularArrayFixedSizeQueue<>(capacity);
+  }
+
+  public IFixedSizeQueue<Object> newFixedSizeQueue(int capacity) {
+    return new SpscCircularArrayFixedSizeQueue<>(capacity);
+  }
+
+  // SPSC QUEUE-SPECIFIC TESTS -----------------------------------------
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("There are no public fields")
+  @Test
+  public void testNoPublicFields() {
+    Reflection.assertNoPublicFields(SpscCircularArrayFixedSizeQueue.class);
+  }
+
+  @Order(fixedSizeQueueLevel)
+  @DisplayName("A producer and a consumer thread transfer every element in order")
+  @ParameterizedTest(name = "Test transferring {1} elements through a queue of capacity {0}")
+  @CsvSource({
+          "1, 100000", "7, 200000", "1024, 1000000"
+  })
+  public void testProducerConsumer(int capacity, int count) throws InterruptedException {
+    SpscCircularArrayFixedSizeQueue<Integer> queue = new SpscCircularArrayFixedSizeQueue<>(capacity);
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < count; i++) {
+        while (!queue.enqueue(i)) {
+          Thread.yield();
+        }
+      }
+    });
+    producer.start();
+    for (int expected = 0; expected < count; expected++) {
+      Integer value;
+      while ((value = queue.dequeue()) == null) {
+        Thread.yield();
+      }
+      assertEquals(expected, value, "elements must arrive in the order they were enqueued");
+    }
+    producer.join();
+    assertEquals(0, queue.size(), "queue should be empty once everything is consumed");
+  }
+
+  // TOSTRING TESTS ---------------------------------------------------
+
+  @Order(toStringTestLevel)
+  @DisplayName("toString() matches java.util.ArrayDeque")
+  @ParameterizedTest(name = "Test toString() on [{arguments}]")
+  @ValueSource(strings = {
+          "0, 1, 2, 3", "5, 4, 3, 2, 1", "8, 3, 5, 7, 4, 3, 12, 12, 1"
+  })
+  public void testToString(String inputs) {
+    java.util.ArrayDeque<String> reference = new java.util.ArrayDeque<String>();
+    IFixedSizeQueue<String> me = new SpscCircularArrayFixedSizeQueue<>(inputs.length());
+    for (String value : inputs.trim().split(", ")) {
+      assertEquals(reference.toString(), me.toString(), "toString outputs should be the same");
+      reference.addLast(value);
+      me.enqueue(value);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.helpers.Inspection;
+import edu.caltech.cs2.helpers.Reflection;
+import edu.caltech.cs2.helpers.RuntimeInstrumentation;
+import edu.caltech.cs2.interfaces.ICollection;
+import edu.caltech.cs2.interfaces.IDeque;
+import edu.caltech.cs2.interfaces.IQueue;
+import edu.caltech.cs2.interfaces.IStack;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("C")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class UnrolledLinkedDequeTests implements DequeTests, StackTests, QueueTests {
+  private static String UNROLLED_DEQUE_SOURCE = "src/edu/caltech/cs2/datastructures/UnrolledLinkedDeque.java";
+  // small chunks so the contract tests cross chunk boundaries constantly
+  private static final int TEST_CHUNK_SIZE = 4;
+
+  public ICollection<Object> newCollection() {
+    return new UnrolledLinkedDeque<>(TEST_CHUNK_SIZE);
+  }
+
+  public IDeque<Object> newDeque() {
+    return new UnrolledLinkedDeque<>(TEST_CHUNK_SIZE);
+  }
+
+  public IStack<Object> newStack() {
+    return new UnrolledLinkedDeque<>(TEST_CHUNK_SIZE);
+  }
+
+  public IQueue<Object> newQueue() {
+    return new UnrolledLinkedDeque<>(TEST_CHUNK_SIZE);
+  }
+
+  public IQueue<Object> newQueue(int size) {
+    return newQueue();
+  }
+
+  // UNROLLEDLINKEDDEQUE-SPECIFIC TESTS ----------------------------------
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("Does not use or import disallowed classes")
+  @Test
+  public void testForInvalidClasses() {
+    List<String> regexps = List.of("java\\.util\\.(?!Iterator)", "java\\.lang\\.reflect", "java\\.io");
+    Inspection.assertNoImportsOf(UNROLLED_DEQUE_SOURCE, regexps);
+    Inspection.assertNoUsageOf(UNROLLED_DEQUE_SOURCE, regexps);
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("There are no public fields")
+  @Test
+  public void testNoPublicFields() {
+    Reflection.assertNoPublicFields(UnrolledLinkedDeque.class);
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("Uses this(...) notation in all but one constructor")
+  @Test
+  public void testForThisConstructors() {
+    Inspection.assertConstructorHygiene(UNROLLED_DEQUE_SOURCE);
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("Random operations match java.util.ArrayDeque")
+  @ParameterizedTest(name = "Test {1} random operations with seed = {0} and chunk size {2}")
+  @CsvSource({
+          "97, 5000, 2", "38, 5000, 3", "12, 5000, 64"
+  })
+  public void testRandomOperations(int seed, int numOps, int chunkSize) {
+    Random r = new Random(seed);
+    java.util.ArrayDeque<Integer> reference = new java.util.ArrayDeque<>();
+    UnrolledLinkedDeque<Integer> me = new UnrolledLinkedDeque<>(chunkSize);
+    for (int i = 0; i < numOps; i++) {
+      switch (r.nextInt(4)) {
+        case 0:
+          me.addFront(i);
+          reference.addFirst(i);
+          break;
+        case 1:
+          me.addBack(i);
+          reference.addLast(i);
+          break;
+        case 2:
+          assertEquals(reference.pollFirst(), me.removeFront(), "return values of removeFront()s are not equal");
+          break;
+        default:
+          assertEquals(reference.pollLast(), me.removeBack(), "return values of removeBack()s are not equal");
+          break;
+      }
+      assertEquals(reference.size(), me.size(), "size()s are not equal");
+      assertEquals(reference.peekFirst(), me.peekFront(), "return values of peekFront()s are not equal");
+      assertEquals(reference.peekLast(), me.peekBack(), "return values of peekBack()s are not equal");
+    }
+    assertEquals(reference.toString(), me.toString(), "toString outputs should be the same");
+  }
+
+  // TOSTRING TESTS ---------------------------------------------------
+
+  @Order(toStringTestLevel)
+  @DisplayName("toString() matches java.util.ArrayDeque")
+  @ParameterizedTest(name = "Test toString() on [{arguments}]")
+  @ValueSource(strings = {
+          "0, 1, 2, 3", "5, 4, 3, 2, 1", "8, 3, 5, 7, 4, 3, 12, 12, 1"
+  })
+  public void testToString(String inputs) {
+    java.util.ArrayDeque<String> reference = new java.util.ArrayDeque<String>();
+    UnrolledLinkedDeque<String> me = new UnrolledLinkedDeque<>(TEST_CHUNK_SIZE);
+    for (String value : inputs.trim().split(", ")) {
+      assertEquals(reference.toString(), me.toString(), "toString outputs should be the same");
+      reference.addLast(value);
+      me.addBack(value);
+    }
+  }
+
+  // TIME COMPLEXITY TESTS ------------------------------------------------
+
+  @Order(complexityTestLevel)
+  @DisplayName("enqueue() and dequeue() take constant time")
+  @Test
+  public void testQueueOperationComplexity() {
+    Function<Integer, IQueue<Integer>> provide = (Integer numElements) -> {
+      IQueue<Integer> q = new UnrolledLinkedDeque<>();
+      for (int i = 0; i < numElements; i++) {
+        q.enqueue(i);
+      }
+      return q;
+    };
+    Consumer<IQueue<Integer>> enqueue = (IQueue<Integer> q) -> q.enqueue(0);
+    Consumer<IQueue<Integer>> dequeue = (IQueue<Integer> q) -> q.dequeue();
+
+    RuntimeInstrumentation.assertAtMost("enqueue", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, enqueue, 8);
+    RuntimeInstrumentation.assertAtMost("dequeue", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, dequeue, 8);
+  }
+
+  @Order(complexityTestLevel)
+  @DisplayName("push() and pop() take constant time")
+  @Test
+  public void testStackOperationComplexity() {
+    Function<Integer, IStack<Integer>> provide = (Integer numElements) -> {
+      IStack<Integer> q = new UnrolledLinkedDeque<>();
+      for (int i = 0; i < numElements; i++) {
+        q.push(i);
+      }
+      return q;
+    };
+    Consumer<IStack<Integer>> push = (IStack<Integer> q) -> q.push(0);
+    Consumer<IStack<Integer>> pop = (IStack<Integer> q) -> q.pop();
+
+    RuntimeInstrumentation.assertAtMost("push", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, push, 8);
+    RuntimeInstrumentation.assertAtMost("pop", RuntimeInstrumentation.ComplexityType.CONSTANT, provide, pop, 8);
+  }
+}
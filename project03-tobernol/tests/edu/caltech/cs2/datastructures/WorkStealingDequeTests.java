@@ -0,0 +1,186 @@
+package edu.caltech.cs2.datastructures;
+
+import edu.caltech.cs2.helpers.Reflection;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("C")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class WorkStealingDequeTests {
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("There are no public fields")
+  @Test
+  public void testNoPublicFields() {
+    Reflection.assertNoPublicFields(WorkStealingDeque.class);
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("addFront() is rejected and add() goes to the back")
+  @Test
+  public void testOwnerEnd() {
+    WorkStealingDeque<Integer> me = new WorkStealingDeque<>();
+    assertThrows(UnsupportedOperationException.class, () -> me.addFront(0), "addFront should be unsupported");
+    me.add(1);
+    me.add(2);
+    assertEquals(2, me.peek(), "add should place elements at the back");
+    assertEquals(1, me.peekFront(), "the oldest element should be at the front");
+  }
+
+  @Order(dequeTestLevel)
+  @DisplayName("Single-threaded operations match java.util.ArrayDeque")
+  @ParameterizedTest(name = "Test {1} random operations with seed = {0} and initial capacity {2}")
+  @CsvSource({
+          "97, 5000, 1", "38, 5000, 32"
+  })
+  public void testRandomOperations(int seed, int numOps, int capacity) {
+    Random r = new Random(seed);
+    java.util.ArrayDeque<Integer> reference = new java.util.ArrayDeque<>();
+    WorkStealingDeque<Integer> me = new WorkStealingDeque<>(capacity);
+    for (int i = 0; i < numOps; i++) {
+      switch (r.nextInt(3)) {
+        case 0:
+          me.addBack(i);
+          reference.addLast(i);
+          break;
+        case 1:
+          assertEquals(reference.pollFirst(), me.removeFront(), "return values of removeFront()s are not equal");
+          break;
+        default:
+          assertEquals(reference.pollLast(), me.removeBack(), "return values of removeBack()s are not equal");
+          break;
+      }
+      assertEquals(reference.size(), me.size(), "size()s are not equal");
+      assertEquals(reference.peekFirst(), me.peekFront(), "return values of peekFront()s are not equal");
+      assertEquals(reference.peekLast(), me.peekBack(), "return values of peekBack()s are not equal");
+    }
+    assertEquals(reference.toString(), me.toString(), "toString outputs should be the same");
+  }
+
+  @Order(dequeTestLevel)
+  @DisplayName("Every element is taken exactly once by the owner or a thief")
+  @ParameterizedTest(name = "Test {0} elements with {1} thieves")
+  @CsvSource({
+          "200000, 1", "200000, 3"
+  })
+  public void testConcurrentSteal(int count, int thieves) throws InterruptedException {
+    WorkStealingDeque<Integer> deque = new WorkStealingDeque<>(2);
+    AtomicIntegerArray taken = new AtomicIntegerArray(count);
+    AtomicInteger total = new AtomicInteger();
+    Thread[] workers = new Thread[thieves];
+    for (int w = 0; w < thieves; w++) {
+      workers[w] = new Thread(() -> {
+        while (total.get() < count) {
+          Integer e = deque.removeFront();
+          if (e == null) {
+            Thread.yield();
+          } else {
+            taken.incrementAndGet(e);
+            total.incrementAndGet();
+          }
+        }
+      });
+      workers[w].start();
+    }
+    Random r = new Random(count);
+    for (int i = 0; i < count; i++) {
+      deque.addBack(i);
+      if (r.nextInt(4) == 0) {
+        Integer e = deque.removeBack();
+        if (e != null) {
+          taken.incrementAndGet(e);
+          total.incrementAndGet();
+        }
+      }
+    }
+    Integer e;
+    while ((e = deque.removeBack()) != null) {
+      taken.incrementAndGet(e);
+      total.incrementAndGet();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    for (int i = 0; i < count; i++) {
+      assertEquals(1, taken.get(i), "element " + i + " should be taken exactly once");
+    }
+  }
+
+  @Order(dequeTestLevel)
+  @DisplayName("Steals never lose an element the owner pushed again into the same slot")
+  @Test
+  public void testStealReusedSlot() throws InterruptedException {
+    // kept one short of capacity, so the owner keeps reusing slots and pushes one shared reference into them
+    int capacity = 4;
+    int count = 200000;
+    Object token = new Object();
+    WorkStealingDeque<Object> deque = new WorkStealingDeque<>(capacity);
+
+    // a thief that won its slot must not write to it: by then the owner may have pushed the same reference there
+    for (int i = 0; i < capacity - 1; i++) {
+      deque.addBack(token);
+    }
+    Object[] before = ((Object[]) Reflection.getFieldValue(WorkStealingDeque.class, "data", deque)).clone();
+    assertSame(token, deque.removeFront());
+    assertArrayEquals(before, Reflection.getFieldValue(WorkStealingDeque.class, "data", deque),
+        "removeFront() should leave the array untouched");
+    for (int i = 1; i < capacity - 1; i++) {
+      assertSame(token, deque.removeBack());
+    }
+    assertNull(deque.removeBack());
+
+    AtomicInteger total = new AtomicInteger();
+    AtomicInteger wrong = new AtomicInteger();
+    Thread[] workers = new Thread[2];
+    for (int w = 0; w < workers.length; w++) {
+      workers[w] = new Thread(() -> {
+        while (total.get() < count) {
+          Object e = deque.removeFront();
+          if (e == null) {
+            Thread.yield();
+          } else {
+            if (e != token) {
+              wrong.incrementAndGet();
+            }
+            total.incrementAndGet();
+          }
+        }
+      });
+      workers[w].setDaemon(true);
+      workers[w].start();
+    }
+    Random r = new Random(17);
+    int pushed = 0;
+    while (pushed < count) {
+      if (deque.size() < capacity - 1) {
+        deque.addBack(token);
+        pushed++;
+      }
+      else if (r.nextInt(2) == 0) {
+        Object e = deque.removeBack();
+        if (e != null) {
+          if (e != token) {
+            wrong.incrementAndGet();
+          }
+          total.incrementAndGet();
+        }
+      }
+      else {
+        Thread.yield();
+      }
+    }
+    for (Thread worker : workers) {
+      worker.join(20000);
+    }
+    assertEquals(count, total.get(), "every pushed element should be taken once");
+    assertEquals(0, wrong.get(), "only the pushed reference should ever be taken");
+  }
+}
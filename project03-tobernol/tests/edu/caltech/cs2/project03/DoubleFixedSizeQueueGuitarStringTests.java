@@ -0,0 +1,315 @@
+package edu.caltech.cs2.project03;
+
+import edu.caltech.cs2.helpers.Reflection;
+import edu.caltech.cs2.interfaces.IDoubleFixedSizeQueue;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static java.lang.Math.abs;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class DoubleFixedSizeQueueGuitarStringTests {
+
+  public static IDoubleFixedSizeQueue getQueueFromString(DoubleFixedSizeQueueGuitarString string) {
+    String queueName = Reflection.getFieldByType(DoubleFixedSizeQueueGuitarString.class, IDoubleFixedSizeQueue.class).getName();
+    return Reflection.getFieldValue(DoubleFixedSizeQueueGuitarString.class, queueName, string);
+  }
+
+  @Order(classSpecificTestLevel)
+  @DisplayName("There are no public fields")
+  @Test
+  public void testNoPublicFields() {
+    Reflection.assertNoPublicFields(DoubleFixedSizeQueueGuitarString.class);
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("The constructor correctly sets up the queue")
+  @ParameterizedTest(name = "Test constructor with a frequency of {0} Hz; expected queue size is {1}")
+  @CsvSource({
+          "110, 401",
+          "340, 130",
+          "880, 51"
+  })
+  public void testConstructor(double frequency, int expectedSize) {
+    DoubleFixedSizeQueueGuitarString string = new DoubleFixedSizeQueueGuitarString(frequency);
+    IDoubleFixedSizeQueue queue = getQueueFromString(string);
+
+    assertEquals(expectedSize, queue.size(), "Queue size is not equal to expected size");
+    assertEquals(expectedSize, string.length(), "Length should be same as queue size");
+    for (int i = 0; i < queue.size(); i++) {
+      assertEquals(0, queue.get(i), "All values in queue should be equal to 0");
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("The pluck() method randomizes the values in the queue")
+  @ParameterizedTest(name = "Test pluck() with a frequency of {0} Hz")
+  @CsvSource({
+          "100",
+          "10",
+          "5"
+  })
+  public void testPluck(double frequency) {
+    final double DELTA = 0.05;
+    DoubleFixedSizeQueueGuitarString string = new DoubleFixedSizeQueueGuitarString(frequency);
+    IDoubleFixedSizeQueue queue = getQueueFromString(string);
+    int length = string.length();
+    string.pluck();
+    assertEquals(length, string.length(), "Length should not change after pluck()");
+    double sum = 0;
+    double absSum = 0;
+    for (int i = 0; i < queue.size(); i++) {
+      sum += queue.get(i);
+      absSum += abs(queue.get(i));
+    }
+    assertEquals(0, sum/queue.size(), DELTA, "average value of uniform distribution should be near 0");
+    assertEquals(0.25, absSum/queue.size(), DELTA, "average magnitude of uniform distribution should be near 0.25");
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Seeded strings pluck reproducibly and only fill length() slots")
+  @Test
+  public void testSeededPluck() {
+    DoubleFixedSizeQueueGuitarString first = new DoubleFixedSizeQueueGuitarString(440, 110);
+    DoubleFixedSizeQueueGuitarString second = new DoubleFixedSizeQueueGuitarString(440, 110);
+    IDoubleFixedSizeQueue firstQueue = getQueueFromString(first);
+    IDoubleFixedSizeQueue secondQueue = getQueueFromString(second);
+    first.seed(42);
+    second.seed(42);
+    for (int round = 0; round < 3; round++) {
+      first.pluck();
+      second.pluck();
+      assertEquals(first.length(), firstQueue.size(), "pluck() should fill exactly length() slots");
+      for (int i = 0; i < firstQueue.size(); i++) {
+        assertEquals(firstQueue.get(i), secondQueue.get(i), "equally seeded strings should pluck the same noise");
+        assertTrue(abs(firstQueue.get(i)) <= 0.5, "noise should lie in [-0.5, 0.5)");
+      }
+    }
+    second.seed(43);
+    second.pluck();
+    first.pluck();
+    boolean differs = false;
+    for (int i = 0; i < firstQueue.size(); i++) {
+      differs |= firstQueue.get(i) != secondQueue.get(i);
+    }
+    assertTrue(differs, "differently seeded strings should pluck different noise");
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("The tic() method correctly applies the Karplus-Strong algorithm")
+  @ParameterizedTest(name = "Test tic() with a frequency of {0} Hz; data file {1}.txt")
+  @CsvSource({
+          "10000, ticStates1",
+          "8000, ticStates2",
+          "5000, ticStates3"
+  })
+  public void testTic(double frequency, String filename) {
+    String filepath = "tests/data/" + filename + ".txt";
+    Scanner in;
+    try {
+      in = new Scanner(new File(filepath));
+    } catch (FileNotFoundException e) {
+      throw new IllegalArgumentException(filepath + " is not a valid trace file.");
+    }
+    DoubleFixedSizeQueueGuitarString string = new DoubleFixedSizeQueueGuitarString(frequency);
+    IDoubleFixedSizeQueue queue = getQueueFromString(string);
+    for (int i = 0; i < queue.size(); i++) {
+      queue.dequeue();
+      queue.enqueue(in.nextDouble());
+    }
+    int initSize = queue.size();
+    for (int i = 0; i < initSize; i++) {
+      string.tic();
+      assertEquals(initSize, queue.size(), "queue size must remain the same");
+    }
+    while (in.hasNext()) {
+      string.tic();
+      assertEquals(initSize, queue.size(), "queue size must remain the same");
+      assertEquals(in.nextDouble(), string.sample(), "next expected value not at front of queue");
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("render() mixes the same samples as sample()/tic()")
+  @ParameterizedTest(name = "Test render() with a frequency of {0} Hz in blocks of {1}")
+  @CsvSource({
+          "110, 256",
+          "880, 7",
+          "5000, 1"
+  })
+  public void testRender(double frequency, int blockSize) {
+    DoubleFixedSizeQueueGuitarString rendered = new DoubleFixedSizeQueueGuitarString(frequency);
+    DoubleFixedSizeQueueGuitarString stepped = new DoubleFixedSizeQueueGuitarString(frequency);
+    IDoubleFixedSizeQueue renderedQueue = getQueueFromString(rendered);
+    IDoubleFixedSizeQueue steppedQueue = getQueueFromString(stepped);
+    rendered.pluck();
+    for (int i = 0; i < renderedQueue.size(); i++) {
+      steppedQueue.dequeue();
+      steppedQueue.enqueue(renderedQueue.get(i));
+    }
+    double[] block = new double[blockSize + 2];
+    for (int round = 0; round < 10; round++) {
+      java.util.Arrays.fill(block, 0.5);
+      rendered.render(block, 1, blockSize);
+      assertEquals(0.5, block[0], "render() must not write before off");
+      assertEquals(0.5, block[blockSize + 1], "render() must not write past off + len");
+      for (int i = 1; i <= blockSize; i++) {
+        assertEquals(0.5 + stepped.sample(), block[i], "render() should add sample() to the block");
+        stepped.tic();
+      }
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Interleaved render() adds each sample to every channel with that channel's gain")
+  @ParameterizedTest(name = "Test interleaved render() with {0} channels in blocks of {1}")
+  @CsvSource({
+          "2, 256",
+          "3, 7",
+          "1, 64"
+  })
+  public void testRenderInterleaved(int channels, int blockSize) {
+    DoubleFixedSizeQueueGuitarString mono = new DoubleFixedSizeQueueGuitarString(440);
+    DoubleFixedSizeQueueGuitarString panned = new DoubleFixedSizeQueueGuitarString(440);
+    mono.seed(11);
+    panned.seed(11);
+    mono.pluck();
+    panned.pluck();
+    double[] gains = new double[channels];
+    for (int c = 0; c < channels; c++) {
+      gains[c] = 0.25 * (c + 1);
+    }
+    double[] block = new double[blockSize];
+    double[] frames = new double[blockSize * channels + 2];
+    for (int round = 0; round < 10; round++) {
+      java.util.Arrays.fill(block, 0.0);
+      java.util.Arrays.fill(frames, 0.5);
+      mono.render(block, 0, blockSize);
+      panned.render(frames, 1, blockSize, gains);
+      assertEquals(0.5, frames[0], "render() must not write before off");
+      assertEquals(0.5, frames[frames.length - 1], "render() must not write past the last frame");
+      for (int i = 0; i < blockSize; i++) {
+        for (int c = 0; c < channels; c++) {
+          assertEquals(0.5 + block[i] * gains[c], frames[1 + i * channels + c]);
+        }
+      }
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("amplitude() bounds every value in the delay line and decays towards 0")
+  @ParameterizedTest(name = "Test amplitude() with a frequency of {0} Hz")
+  @CsvSource({
+          "110",
+          "880",
+          "5000"
+  })
+  public void testAmplitude(double frequency) {
+    DoubleFixedSizeQueueGuitarString string = new DoubleFixedSizeQueueGuitarString(frequency);
+    IDoubleFixedSizeQueue queue = getQueueFromString(string);
+    assertEquals(0, string.amplitude(), "a new string should be silent");
+    string.pluck();
+    double previous = string.amplitude();
+    for (int i = 0; i < 200 * string.length(); i++) {
+      string.tic();
+      double max = 0;
+      for (int j = 0; j < queue.size(); j++) {
+        max = Math.max(max, abs(queue.get(j)));
+      }
+      assertTrue(max <= string.amplitude(), "amplitude() must bound every value in the queue");
+      assertTrue(string.amplitude() <= previous, "amplitude() must never grow between plucks");
+      previous = string.amplitude();
+    }
+    assertTrue(string.amplitude() < 0.25, "amplitude() should decay");
+    string.silence();
+    assertEquals(0, string.amplitude(), "silence() should zero the amplitude");
+    for (int j = 0; j < queue.size(); j++) {
+      assertEquals(0, queue.get(j), "silence() should zero the queue");
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("tune() reuses the delay line and rejects frequencies below its range")
+  @Test
+  public void testTune() {
+    DoubleFixedSizeQueueGuitarString string = new DoubleFixedSizeQueueGuitarString(880, 110);
+    IDoubleFixedSizeQueue queue = getQueueFromString(string);
+    assertEquals(51, string.length());
+    assertEquals(401, queue.capacity(), "the delay line should be sized for the lowest frequency");
+    string.pluck();
+    assertEquals(51, queue.size(), "pluck() should only fill length() slots");
+
+    string.tune(110);
+    assertEquals(401, string.length());
+    assertSame(queue, getQueueFromString(string), "tune() must not allocate a new queue");
+    assertEquals(0, string.amplitude(), "tune() should leave the string silent");
+    for (int i = 0; i < queue.size(); i++) {
+      assertEquals(0, queue.get(i), "tune() should leave the string silent");
+    }
+    assertThrows(IllegalArgumentException.class, () -> string.tune(100));
+
+    // lengthFor() predicts the length without a string to tune
+    DoubleFixedSizeQueueGuitarString fractional = new DoubleFixedSizeQueueGuitarString(110, 110, true);
+    for (double frequency : new double[] {110, 261.63, 440, 987.77, 3520}) {
+      string.tune(frequency);
+      fractional.tune(frequency);
+      assertEquals(string.length(), DoubleFixedSizeQueueGuitarString.lengthFor(frequency, false));
+      assertEquals(fractional.length(), DoubleFixedSizeQueueGuitarString.lengthFor(frequency, true));
+    }
+  }
+
+  // frequency of a plucked string near the expected one, from how far the phase of that DFT bin
+  // advances between the two Hann-windowed halves of the rendered signal
+  private static double measureFrequency(DoubleFixedSizeQueueGuitarString string, double expected) {
+    int half = 4096;
+    double[] signal = new double[2 * half];
+    string.pluck();
+    string.render(new double[2048], 0, 2048);
+    string.render(signal, 0, signal.length);
+    double omega = 2 * Math.PI * expected / 44100;
+    double[] phase = new double[2];
+    for (int h = 0; h < 2; h++) {
+      double re = 0;
+      double im = 0;
+      for (int i = h * half; i < (h + 1) * half; i++) {
+        double windowed = signal[i] * (0.5 - 0.5 * Math.cos(2 * Math.PI * (i - h * half) / half));
+        re += windowed * Math.cos(omega * i);
+        im -= windowed * Math.sin(omega * i);
+      }
+      phase[h] = Math.atan2(im, re);
+    }
+    double advance = Math.IEEEremainder(phase[1] - phase[0], 2 * Math.PI);
+    return expected + advance / (2 * Math.PI * half) * 44100;
+  }
+
+  private static double cents(double actual, double expected) {
+    return 1200 * Math.log(actual / expected) / Math.log(2);
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Fractional tuning plays the requested pitch")
+  @ParameterizedTest(name = "Test fractional tuning at {0} Hz")
+  @CsvSource({
+          "1318.51",
+          "987.77",
+          "523.25",
+          "220"
+  })
+  public void testFractionalTuning(double frequency) {
+    DoubleFixedSizeQueueGuitarString tuned = new DoubleFixedSizeQueueGuitarString(frequency, frequency, true);
+    assertEquals(0, cents(measureFrequency(tuned, frequency), frequency), 1, "a tuned string should be within a cent");
+    assertTrue(tuned.length() <= Math.ceil(44100 / frequency), "the delay line should fit in the untuned length");
+
+    tuned.tune(frequency * 1.5);
+    assertEquals(0, cents(measureFrequency(tuned, frequency * 1.5), frequency * 1.5), 1,
+            "a retuned string should be within a cent");
+  }
+}
@@ -0,0 +1,107 @@
+package edu.caltech.cs2.project03;
+
+import edu.caltech.cs2.interfaces.IDoubleFixedSizeQueue;
+import org.junit.jupiter.api.*;
+
+import static edu.caltech.cs2.project03.DoubleFixedSizeQueueGuitarStringTests.getQueueFromString;
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ExcitationCacheTests {
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Repeated keys hit the cache and return the same buffer")
+  @Test
+  public void testHits() {
+    ExcitationCache cache = new ExcitationCache(1 << 20);
+    double[] first = cache.get(100, Excitation.NOISE, 1);
+    assertSame(first, cache.get(100, Excitation.NOISE, 1));
+    assertNotSame(first, cache.get(100, Excitation.NOISE, 2));
+    assertNotSame(first, cache.get(100, Excitation.SOFT, 1));
+    assertNotSame(first, cache.get(101, Excitation.NOISE, 1));
+    assertEquals(1, cache.hits());
+    assertEquals(4, cache.misses());
+    assertEquals(4, cache.size());
+    assertEquals((100 * 3 + 101) * Double.BYTES, cache.bytes());
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("prewarm() caches every variant ahead of time, so later lookups only hit")
+  @Test
+  public void testPrewarm() {
+    ExcitationCache cache = new ExcitationCache(1 << 20);
+    cache.prewarm(new int[] {100, 200}, Excitation.NOISE, 3);
+    assertEquals(6, cache.size());
+    assertEquals(0, cache.hits(), "prewarming is neither a hit nor a miss");
+    assertEquals(0, cache.misses(), "prewarming is neither a hit nor a miss");
+    double[] buffer = cache.get(200, Excitation.NOISE, 2);
+    assertArrayEquals(Excitation.NOISE.create(200, 2), buffer);
+    cache.prewarm(new int[] {200}, Excitation.NOISE, 3);
+    assertSame(buffer, cache.get(200, Excitation.NOISE, 2), "prewarming again should keep cached buffers");
+    for (int length : new int[] {100, 200}) {
+      for (int seed = 0; seed < 3; seed++) {
+        cache.get(length, Excitation.NOISE, seed);
+      }
+    }
+    assertEquals(0, cache.misses());
+    assertEquals(8, cache.hits());
+    assertThrows(IllegalArgumentException.class, () -> cache.prewarm(new int[] {100}, Excitation.NOISE, -1));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("The least recently used buffers are evicted to stay within the budget")
+  @Test
+  public void testLruEviction() {
+    ExcitationCache cache = new ExcitationCache(3 * 100 * Double.BYTES);
+    double[] a = cache.get(100, Excitation.NOISE, 1);
+    double[] b = cache.get(100, Excitation.NOISE, 2);
+    cache.get(100, Excitation.NOISE, 3);
+    assertSame(a, cache.get(100, Excitation.NOISE, 1), "a should still be cached");
+    cache.get(100, Excitation.NOISE, 4);
+    assertEquals(3, cache.size());
+    assertTrue(cache.bytes() <= 3 * 100 * Double.BYTES);
+    assertSame(a, cache.get(100, Excitation.NOISE, 1), "a was used recently and should survive");
+    assertNotSame(b, cache.get(100, Excitation.NOISE, 2), "b was least recently used and should be evicted");
+    assertArrayEquals(b, cache.get(100, Excitation.NOISE, 2), "regenerated buffers should match the originals");
+
+    double[] huge = cache.get(1000, Excitation.NOISE, 1);
+    assertEquals(1000, huge.length, "buffers larger than the budget are still returned");
+    assertTrue(cache.bytes() <= 3 * 100 * Double.BYTES, "buffers larger than the budget are not cached");
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Excitations are within [-0.5, 0.5] and NOISE matches a seeded pluck()")
+  @Test
+  public void testShapes() {
+    DoubleFixedSizeQueueGuitarString string = new DoubleFixedSizeQueueGuitarString(440);
+    IDoubleFixedSizeQueue queue = getQueueFromString(string);
+    string.seed(99);
+    string.pluck();
+    double[] noise = Excitation.NOISE.create(string.length(), 99);
+    for (int i = 0; i < noise.length; i++) {
+      assertEquals(queue.get(i), noise[i], "NOISE should match pluck() with the same seed");
+    }
+    for (Excitation shape : Excitation.values()) {
+      for (double x : shape.create(500, 5)) {
+        assertTrue(Math.abs(x) <= 0.5, shape + " should stay within [-0.5, 0.5]");
+      }
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("pluck(double[]) loads the excitation and rejects short ones")
+  @Test
+  public void testPluckExcitation() {
+    DoubleFixedSizeQueueGuitarString string = new DoubleFixedSizeQueueGuitarString(440, 110);
+    IDoubleFixedSizeQueue queue = getQueueFromString(string);
+    double[] excitation = Excitation.SOFT.create(string.length() + 10, 3);
+    string.pluck(excitation);
+    assertEquals(string.length(), queue.size());
+    for (int i = 0; i < queue.size(); i++) {
+      assertEquals(excitation[i], queue.get(i));
+    }
+    assertThrows(IllegalArgumentException.class, () -> string.pluck(new double[string.length() - 1]));
+  }
+}
@@ -0,0 +1,100 @@
+package edu.caltech.cs2.project03;
+
+import edu.caltech.cs2.project03.libraries.PcmFormat;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class OfflineRendererTests {
+  private static final double THRESHOLD = 1.0 / 32768;
+
+  private static VoicePool seededPool() {
+    VoicePool voices = new VoicePool(8, 110, THRESHOLD);
+    voices.seed(1234);
+    return voices;
+  }
+
+  private static Score score() {
+    return new Score().add(0, 220).add(0.01, 330).add(0.01, 440).add(0.2, 220).add(0.25, 880);
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Score.read() parses keys and times, including the space bar")
+  @Test
+  public void testReadScore(@TempDir Path dir) throws IOException {
+    File file = dir.resolve("score.txt").toFile();
+    Files.writeString(file.toPath(), "# warm up\n0 q\n\n0.5 v\n1.0  \n");
+    Score score = Score.read(file);
+    assertEquals(3, score.size());
+    assertEquals(0, score.time(0));
+    assertEquals(22050, score.time(1));
+    assertEquals(44100, score.length());
+    assertEquals(GuitarHero.frequencyOf('q'), score.frequency(0));
+    assertEquals(440.0, score.frequency(1), 1e-9);
+    assertEquals(GuitarHero.frequencyOf(' '), score.frequency(2));
+
+    Files.writeString(file.toPath(), "0.5 q\n0.25 w\n");
+    assertThrows(IllegalArgumentException.class, () -> Score.read(file));
+    Files.writeString(file.toPath(), "0.5 A\n");
+    assertThrows(IllegalArgumentException.class, () -> Score.read(file));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("The WAV file holds exactly what rendering the score block by block produces")
+  @Test
+  public void testRenderToWav(@TempDir Path dir) throws Exception {
+    File out = dir.resolve("out.wav").toFile();
+    double factor = new OfflineRenderer(seededPool(), 100).render(score(), 0.5, out);
+    assertTrue(factor > 0, "the realtime factor should be reported");
+
+    // the same notes played by hand, one sample-accurate segment at a time
+    VoicePool voices = seededPool();
+    Score score = score();
+    long total = score.length() + 22050;
+    double[] expected = new double[(int) total];
+    int done = 0;
+    for (int i = 0; i < score.size(); i++) {
+      voices.render(expected, done, (int) score.time(i) - done);
+      done = (int) score.time(i);
+      voices.noteOn(score.frequency(i));
+    }
+    voices.render(expected, done, (int) total - done);
+    byte[] expectedBytes = new byte[expected.length * PcmFormat.BYTES_PER_SAMPLE];
+    PcmFormat.encode(expected, 0, expected.length, expectedBytes, 0);
+
+    try (AudioInputStream in = AudioSystem.getAudioInputStream(out)) {
+      AudioFormat format = in.getFormat();
+      assertTrue(format.matches(PcmFormat.format()), "the file should use the standard audio format");
+      assertEquals(total, in.getFrameLength());
+      byte[] actual = in.readAllBytes();
+      assertArrayEquals(expectedBytes, actual);
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Block size does not change the output")
+  @Test
+  public void testBlockSizeIndependent() throws IOException {
+    byte[] reference = null;
+    for (int blockSize : new int[]{1, 37, 4096}) {
+      byte[] bytes = new OfflineRenderer(seededPool(), blockSize).stream(score(), 1000).readAllBytes();
+      if (reference == null) {
+        reference = bytes;
+      }
+      assertTrue(Arrays.equals(reference, bytes), "block size " + blockSize + " changed the output");
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package edu.caltech.cs2.project03;
+
+import edu.caltech.cs2.interfaces.IDoubleFixedSizeQueue;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static edu.caltech.cs2.project03.DoubleFixedSizeQueueGuitarStringTests.getQueueFromString;
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ParallelRendererTests {
+  private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+  // plucked strings, plus an identical copy of each
+  private static DoubleFixedSizeQueueGuitarString[][] pluckedPairs(int n) {
+    DoubleFixedSizeQueueGuitarString[][] pairs = new DoubleFixedSizeQueueGuitarString[2][n];
+    for (int i = 0; i < n; i++) {
+      double frequency = 110 * Math.pow(2, (i % 48) / 12.0);
+      pairs[0][i] = new DoubleFixedSizeQueueGuitarString(frequency);
+      pairs[1][i] = new DoubleFixedSizeQueueGuitarString(frequency);
+      pairs[0][i].pluck();
+      IDoubleFixedSizeQueue from = getQueueFromString(pairs[0][i]);
+      IDoubleFixedSizeQueue to = getQueueFromString(pairs[1][i]);
+      for (int j = 0; j < from.size(); j++) {
+        to.dequeue();
+        to.enqueue(from.get(j));
+      }
+    }
+    return pairs;
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Deterministic mode is bit-identical to rendering the strings in order")
+  @ParameterizedTest(name = "Test {0} voices in blocks of {1}")
+  @CsvSource({
+          "1, 256",
+          "37, 256",
+          "300, 1024",
+          "64, 3"
+  })
+  public void testDeterministic(int voices, int blockSize) {
+    DoubleFixedSizeQueueGuitarString[][] pairs = pluckedPairs(voices);
+    ParallelRenderer renderer = new ParallelRenderer(POOL, 8, true);
+    double[] expected = new double[blockSize + 2];
+    double[] actual = new double[blockSize + 2];
+    for (int round = 0; round < 5; round++) {
+      for (DoubleFixedSizeQueueGuitarString string : pairs[0]) {
+        string.render(expected, 1, blockSize);
+      }
+      renderer.render(pairs[1], voices, actual, 1, blockSize);
+      assertArrayEquals(expected, actual, "deterministic output must match the serial path exactly");
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Interleaved deterministic rendering is bit-identical to panning the strings in order")
+  @ParameterizedTest(name = "Test {0} voices in {1} channels")
+  @CsvSource({
+          "37, 2",
+          "300, 3",
+          "5, 1"
+  })
+  public void testDeterministicInterleaved(int voices, int channels) {
+    DoubleFixedSizeQueueGuitarString[][] pairs = pluckedPairs(voices);
+    double[][] gains = new double[voices][channels];
+    for (int v = 0; v < voices; v++) {
+      for (int c = 0; c < channels; c++) {
+        gains[v][c] = Math.cos(v + c);
+      }
+    }
+    ParallelRenderer renderer = new ParallelRenderer(POOL, 8, true);
+    int frames = 700;
+    double[] expected = new double[frames * channels];
+    double[] actual = new double[frames * channels];
+    for (int round = 0; round < 5; round++) {
+      for (int v = 0; v < voices; v++) {
+        pairs[0][v].render(expected, 0, frames, gains[v]);
+      }
+      renderer.render(pairs[1], gains, voices, actual, 0, frames);
+      assertArrayEquals(expected, actual, "deterministic output must match the serial path exactly");
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Tree-reduced mode matches the serial path up to rounding")
+  @ParameterizedTest(name = "Test {0} voices with leaves of {1}")
+  @CsvSource({
+          "37, 8",
+          "300, 16",
+          "5, 1"
+  })
+  public void testTreeReduction(int voices, int leafSize) {
+    DoubleFixedSizeQueueGuitarString[][] pairs = pluckedPairs(voices);
+    ParallelRenderer renderer = new ParallelRenderer(POOL, leafSize, false);
+    double[] expected = new double[512];
+    double[] actual = new double[512];
+    for (int round = 0; round < 5; round++) {
+      for (DoubleFixedSizeQueueGuitarString string : pairs[0]) {
+        string.render(expected, 0, expected.length);
+      }
+      renderer.render(pairs[1], voices, actual, 0, actual.length);
+      assertArrayEquals(expected, actual, 1e-9);
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("GuitarHero's render modes pick the matching renderer")
+  @Test
+  public void testRenderModes() {
+    assertNull(GuitarHero.RenderMode.parse("serial").renderer());
+    assertFalse(GuitarHero.RenderMode.parse("Parallel").renderer().isDeterministic());
+    assertTrue(GuitarHero.RenderMode.parse("DETERMINISTIC").renderer().isDeterministic());
+    for (String name : new String[] {"true", "false", "fast"}) {
+      IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+          () -> GuitarHero.RenderMode.parse(name));
+      assertTrue(e.getMessage().contains("[serial, parallel, deterministic]"), "the message should list the modes");
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package edu.caltech.cs2.project03;
+
+/**
+ * Throughput of StringBank against one DoubleFixedSizeQueueGuitarString per voice, reported as the number of
+ * voices a single core can keep up with at 44.1 kHz. Run with
+ * java edu.caltech.cs2.project03.StringBankBenchmark [voices] [block size].
+ */
+public class StringBankBenchmark {
+  private static final int SAMPLE_RATE = 44100;
+  private static final int ROUNDS = 10;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int SECONDS_PER_ROUND = 2;
+
+  public static void main(String[] args) {
+    int voices = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+    int blockSize = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+
+    double[] frequencies = new double[voices];
+    for (int i = 0; i < voices; i++) {
+      frequencies[i] = 110 * Math.pow(2, (i % 48) / 12.0);
+    }
+    StringBank bank = new StringBank(frequencies);
+    DoubleFixedSizeQueueGuitarString[] strings = new DoubleFixedSizeQueueGuitarString[voices];
+    for (int i = 0; i < voices; i++) {
+      bank.pluck(i);
+      strings[i] = new DoubleFixedSizeQueueGuitarString(frequencies[i]);
+      strings[i].pluck();
+    }
+
+    double[] block = new double[blockSize];
+    int blocks = SECONDS_PER_ROUND * SAMPLE_RATE / blockSize;
+    double bestBank = 0;
+    double bestStrings = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int b = 0; b < blocks; b++) {
+        bank.render(block, 0, blockSize);
+      }
+      double bankRate = voicesPerCore(voices, blocks * blockSize, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      for (int b = 0; b < blocks; b++) {
+        for (DoubleFixedSizeQueueGuitarString string : strings) {
+          string.render(block, 0, blockSize);
+        }
+      }
+      double stringRate = voicesPerCore(voices, blocks * blockSize, System.nanoTime() - start);
+      if (round >= WARMUP_ROUNDS) {
+        bestBank = Math.max(bestBank, bankRate);
+        bestStrings = Math.max(bestStrings, stringRate);
+      }
+    }
+    System.out.printf("%d voices, blocks of %d: StringBank %.0f voices per core, strings %.0f voices per core "
+            + "(best of %d rounds, checksum %f)%n", voices, blockSize, bestBank, bestStrings,
+            ROUNDS - WARMUP_ROUNDS, block[0]);
+  }
+
+  // voice-samples per second divided by the samples per second one realtime voice needs
+  private static double voicesPerCore(int voices, long samples, long nanos) {
+    return voices * (double) samples / (nanos / 1e9) / SAMPLE_RATE;
+  }
+}
@@ -0,0 +1,76 @@
+package edu.caltech.cs2.project03;
+
+import edu.caltech.cs2.interfaces.IDoubleFixedSizeQueue;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static edu.caltech.cs2.project03.DoubleFixedSizeQueueGuitarStringTests.getQueueFromString;
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class StringBankTests {
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Voices are laid out with the same lengths as individual strings")
+  @Test
+  public void testLengths() {
+    StringBank bank = new StringBank(new double[]{110, 340, 880});
+    assertEquals(3, bank.voices());
+    assertEquals(401, bank.length(0));
+    assertEquals(130, bank.length(1));
+    assertEquals(51, bank.length(2));
+    for (int v = 0; v < bank.voices(); v++) {
+      for (int i = 0; i < bank.length(v); i++) {
+        assertEquals(0, bank.get(v, i), "voices should start silent");
+      }
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> bank.get(2, 51));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("render() is bit-identical to rendering each voice as its own string")
+  @ParameterizedTest(name = "Test render() in blocks of {0}")
+  @CsvSource({
+          "256",
+          "1",
+          "50",
+          "51",
+          "1000"
+  })
+  public void testRenderMatchesStrings(int blockSize) {
+    double[] frequencies = new double[37];
+    for (int i = 0; i < frequencies.length; i++) {
+      frequencies[i] = 440 * Math.pow(2, (i - 24.0) / 12.0);
+    }
+    StringBank bank = new StringBank(frequencies);
+    DoubleFixedSizeQueueGuitarString[] strings = new DoubleFixedSizeQueueGuitarString[frequencies.length];
+    for (int v = 0; v < frequencies.length; v++) {
+      bank.pluck(v);
+      strings[v] = new DoubleFixedSizeQueueGuitarString(frequencies[v]);
+      IDoubleFixedSizeQueue queue = getQueueFromString(strings[v]);
+      for (int i = 0; i < bank.length(v); i++) {
+        queue.dequeue();
+        queue.enqueue(bank.get(v, i));
+      }
+    }
+
+    double[] expected = new double[blockSize + 2];
+    double[] actual = new double[blockSize + 2];
+    for (int round = 0; round < 2000 / blockSize + 3; round++) {
+      for (DoubleFixedSizeQueueGuitarString string : strings) {
+        string.render(expected, 1, blockSize);
+      }
+      bank.render(actual, 1, blockSize);
+      assertArrayEquals(expected, actual, "bank output must match the strings exactly");
+    }
+    for (int v = 0; v < frequencies.length; v++) {
+      IDoubleFixedSizeQueue queue = getQueueFromString(strings[v]);
+      for (int i = 0; i < bank.length(v); i++) {
+        assertEquals(queue.get(i), bank.get(v, i), "delay lines should stay in step");
+      }
+    }
+  }
+}
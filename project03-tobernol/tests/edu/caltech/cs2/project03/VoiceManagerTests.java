@@ -0,0 +1,91 @@
+package edu.caltech.cs2.project03;
+
+import org.junit.jupiter.api.*;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class VoiceManagerTests {
+  private static final double THRESHOLD = 1.0 / 32768;
+
+  private static DoubleFixedSizeQueueGuitarString[] strings(int n) {
+    DoubleFixedSizeQueueGuitarString[] strings = new DoubleFixedSizeQueueGuitarString[n];
+    for (int i = 0; i < n; i++) {
+      strings[i] = new DoubleFixedSizeQueueGuitarString(220 * Math.pow(2, i / 12.0));
+    }
+    return strings;
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Only plucked strings are active, and plucking twice does not duplicate a voice")
+  @Test
+  public void testPluckActivates() {
+    VoiceManager voices = new VoiceManager(strings(5), THRESHOLD);
+    assertEquals(0, voices.activeCount());
+    voices.pluck(3);
+    voices.pluck(1);
+    voices.pluck(3);
+    assertEquals(2, voices.activeCount());
+    assertTrue(voices.isActive(1));
+    assertTrue(voices.isActive(3));
+    assertFalse(voices.isActive(0));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("render() mixes exactly the active strings")
+  @Test
+  public void testRenderMatchesStrings() {
+    DoubleFixedSizeQueueGuitarString[] strings = strings(4);
+    DoubleFixedSizeQueueGuitarString[] reference = strings(4);
+    VoiceManager voices = new VoiceManager(strings, THRESHOLD);
+    voices.pluck(2);
+    DoubleFixedSizeQueueGuitarStringTests.getQueueFromString(reference[2]).clear();
+    DoubleFixedSizeQueueGuitarStringTests.getQueueFromString(reference[2])
+            .enqueueAll(toArray(strings[2]), 0, strings[2].length());
+
+    double[] block = new double[64];
+    double[] expected = new double[64];
+    for (int round = 0; round < 20; round++) {
+      java.util.Arrays.fill(block, 0);
+      java.util.Arrays.fill(expected, 0);
+      voices.render(block, 0, block.length);
+      for (DoubleFixedSizeQueueGuitarString string : reference) {
+        string.render(expected, 0, expected.length);
+      }
+      assertArrayEquals(expected, block);
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Strings that decay below the threshold are retired and woken by pluck()")
+  @Test
+  public void testRetireAndWake() {
+    DoubleFixedSizeQueueGuitarString[] strings = strings(3);
+    VoiceManager voices = new VoiceManager(strings, THRESHOLD);
+    voices.pluck(0);
+    voices.pluck(2);
+    double[] block = new double[512];
+    int blocks = 0;
+    while (voices.activeCount() > 0) {
+      voices.render(block, 0, block.length);
+      assertTrue(++blocks < 10000, "plucked strings should eventually fall silent");
+    }
+    assertFalse(voices.isActive(0));
+    assertEquals(0, strings[0].amplitude());
+    assertEquals(0, strings[0].sample());
+
+    voices.pluck(0);
+    assertEquals(1, voices.activeCount());
+    assertTrue(voices.isActive(0));
+  }
+
+  private static double[] toArray(DoubleFixedSizeQueueGuitarString string) {
+    double[] values = new double[string.length()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = DoubleFixedSizeQueueGuitarStringTests.getQueueFromString(string).get(i);
+    }
+    return values;
+  }
+}
@@ -0,0 +1,165 @@
+package edu.caltech.cs2.project03;
+
+import org.junit.jupiter.api.*;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class VoicePoolTests {
+  private static final double THRESHOLD = 1.0 / 32768;
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Notes are spread over free voices, and repeating a note re-plucks its voice")
+  @Test
+  public void testAllocation() {
+    VoicePool pool = new VoicePool(4, 110, THRESHOLD);
+    assertEquals(4, pool.polyphony());
+    int a = pool.noteOn(220);
+    int b = pool.noteOn(330);
+    assertNotEquals(a, b);
+    assertEquals(2, pool.activeCount());
+    assertEquals(a, pool.noteOn(220), "a sounding note should reuse its voice");
+    assertEquals(2, pool.activeCount());
+    assertThrows(IllegalArgumentException.class, () -> pool.noteOn(55));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("A full pool steals its quietest voice and never exceeds its polyphony")
+  @Test
+  public void testStealing() {
+    VoicePool pool = new VoicePool(3, 110, THRESHOLD);
+    double[] block = new double[1024];
+    int oldest = pool.noteOn(220);
+    for (int i = 0; i < 20; i++) {
+      pool.render(block, 0, block.length);
+    }
+    pool.noteOn(330);
+    pool.noteOn(440);
+    assertEquals(3, pool.activeCount());
+    assertEquals(oldest, pool.noteOn(550), "the oldest note has decayed the most and should be stolen");
+    for (int i = 0; i < 100; i++) {
+      pool.noteOn(110 + i * 7);
+      assertEquals(3, pool.activeCount());
+      pool.render(block, 0, 64);
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Voices are freed once they fall silent")
+  @Test
+  public void testRelease() {
+    VoicePool pool = new VoicePool(2, 110, THRESHOLD);
+    pool.noteOn(440);
+    double[] block = new double[512];
+    int blocks = 0;
+    while (pool.activeCount() > 0) {
+      pool.render(block, 0, block.length);
+      assertTrue(++blocks < 10000, "plucked voices should eventually fall silent");
+    }
+    pool.noteOn(110);
+    assertEquals(1, pool.activeCount());
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Equally seeded pools play the same samples")
+  @Test
+  public void testSeed() {
+    VoicePool first = new VoicePool(4, 110, THRESHOLD);
+    VoicePool second = new VoicePool(4, 110, THRESHOLD);
+    first.seed(7);
+    second.seed(7);
+    double[] expected = new double[128];
+    double[] actual = new double[128];
+    for (int i = 0; i < 10; i++) {
+      first.noteOn(220 + 55 * i);
+      second.noteOn(220 + 55 * i);
+      first.render(expected, 0, expected.length);
+      second.render(actual, 0, actual.length);
+      assertArrayEquals(expected, actual);
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Pan gains keep equal power and use the two nearest channels")
+  @Test
+  public void testPanGains() {
+    double[] stereo = new double[2];
+    VoicePool.panGains(-1, stereo);
+    assertArrayEquals(new double[] {1, 0}, stereo, 1e-12);
+    VoicePool.panGains(1, stereo);
+    assertArrayEquals(new double[] {0, 1}, stereo, 1e-12);
+    VoicePool.panGains(0, stereo);
+    assertArrayEquals(new double[] {Math.sqrt(0.5), Math.sqrt(0.5)}, stereo, 1e-12);
+
+    double[] quad = new double[4];
+    for (double pan = -1; pan <= 1; pan += 0.05) {
+      VoicePool.panGains(pan, quad);
+      double power = 0;
+      int nonzero = 0;
+      for (double g : quad) {
+        power += g * g;
+        nonzero += g > 1e-12 ? 1 : 0;
+      }
+      assertEquals(1.0, power, 1e-12, "pan " + pan + " should keep equal power");
+      assertTrue(nonzero <= 2, "pan " + pan + " should use at most two channels");
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Panned voices render into interleaved frames")
+  @Test
+  public void testPannedRender() {
+    VoicePool mono = new VoicePool(4, 110, THRESHOLD);
+    VoicePool stereo = new VoicePool(4, 110, THRESHOLD);
+    mono.seed(3);
+    stereo.seed(3);
+    mono.noteOn(220);
+    mono.noteOn(330);
+    stereo.noteOn(220, 0.0);
+    stereo.noteOn(330, -1.0);
+    double[] block = new double[64];
+    double[] frames = new double[128];
+    for (int round = 0; round < 5; round++) {
+      java.util.Arrays.fill(block, 0.0);
+      java.util.Arrays.fill(frames, 0.0);
+      mono.render(block, 0, 64);
+      stereo.render(frames, 0, 64, 2);
+      // right holds only the centered voice, scaled by sqrt(1/2); left holds the same plus the hard-left voice
+      for (int i = 0; i < 64; i++) {
+        double right = frames[2 * i + 1];
+        double left = frames[2 * i];
+        assertEquals(block[i], right / Math.sqrt(0.5) + (left - right), 1e-12);
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> stereo.noteOn(440, 1.5));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Pools with an excitation cache reuse prepared excitations")
+  @Test
+  public void testExcitations() {
+    VoicePool pool = new VoicePool(4, 110, THRESHOLD);
+    ExcitationCache cache = new ExcitationCache(1 << 20);
+    pool.useExcitations(cache, Excitation.NOISE, 2);
+    for (int i = 0; i < 50; i++) {
+      pool.noteOn(440);
+      pool.noteOn(660);
+    }
+    assertEquals(4, cache.misses(), "two pitches with two variants each should be generated once");
+    assertEquals(96, cache.hits());
+
+    VoicePool prewarmed = new VoicePool(4, 110, THRESHOLD);
+    ExcitationCache warm = new ExcitationCache(1 << 20);
+    prewarmed.useExcitations(warm, Excitation.NOISE, 2);
+    prewarmed.prewarmExcitations(440, 660);
+    for (int i = 0; i < 50; i++) {
+      prewarmed.noteOn(440);
+      prewarmed.noteOn(660);
+    }
+    assertEquals(0, warm.misses(), "prewarmed notes should never generate an excitation");
+    assertEquals(100, warm.hits());
+    assertThrows(IllegalArgumentException.class, () -> prewarmed.prewarmExcitations(100));
+  }
+}
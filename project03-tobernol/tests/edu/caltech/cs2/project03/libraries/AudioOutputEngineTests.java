@@ -0,0 +1,156 @@
+package edu.caltech.cs2.project03.libraries;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class AudioOutputEngineTests {
+
+  // remembers every sample it is given, optionally sleeping on each write like a device would block
+  private static class RecordingSink implements AudioSink {
+    final List<Double> samples = new ArrayList<>();
+    final long delayMillis;
+    volatile boolean closed = false;
+    volatile Thread writer;
+
+    RecordingSink(long delayMillis) {
+      this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public void write(double[] block, int off, int len) {
+      this.writer = Thread.currentThread();
+      for (int i = off; i < off + len; i++) {
+        this.samples.add(block[i]);
+      }
+      if (this.delayMillis > 0) {
+        try {
+          Thread.sleep(this.delayMillis);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    @Override
+    public void close() {
+      this.closed = true;
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Every sample reaches the target in order, including a partial last block")
+  @Test
+  public void testOrderAndCompleteness() throws IOException {
+    RecordingSink sink = new RecordingSink(0);
+    AudioOutputEngine engine = new AudioOutputEngine(sink, 64, 3);
+    double[] chunk = new double[37];
+    int n = 0;
+    for (int c = 0; c < 50; c++) {
+      for (int i = 0; i < chunk.length; i++) {
+        chunk[i] = n++;
+      }
+      engine.write(chunk, 0, chunk.length);
+      engine.write(n++);
+    }
+    engine.close();
+
+    assertTrue(sink.closed, "closing the engine should close its target");
+    assertEquals(n, sink.samples.size());
+    for (int i = 0; i < n; i++) {
+      assertEquals(i, sink.samples.get(i), 0.0);
+    }
+    assertNotEquals(Thread.currentThread(), sink.writer, "the target should be written from the engine's thread");
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("A slow target paces the producer without losing samples")
+  @Test
+  public void testSlowTarget() throws IOException {
+    RecordingSink sink = new RecordingSink(2);
+    AudioOutputEngine engine = new AudioOutputEngine(sink, 16, 2);
+    for (int i = 0; i < 200; i++) {
+      engine.write(i);
+    }
+    engine.close();
+    assertEquals(200, sink.samples.size());
+    assertEquals(199, sink.samples.get(199), 0.0);
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("A failing target surfaces as an IOException on the producer")
+  @Test
+  public void testFailure() {
+    AudioSink failing = new AudioSink() {
+      @Override
+      public void write(double[] samples, int off, int len) throws IOException {
+        throw new IOException("device unplugged");
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    AudioOutputEngine engine = new AudioOutputEngine(failing, 4, 2);
+    assertThrows(IOException.class, () -> {
+      for (int i = 0; i < 10_000; i++) {
+        engine.write(0.0);
+      }
+      engine.close();
+    });
+    // the block that failed to publish is still full, and must not be written past
+    for (int i = 0; i < 10; i++) {
+      assertThrows(IOException.class, () -> engine.write(0.0), "a failed engine should stay failed");
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Writing to a closed engine throws instead of waiting for a writer that has stopped")
+  @Test
+  public void testWriteAfterClose() throws IOException {
+    RecordingSink sink = new RecordingSink(0);
+    AudioOutputEngine engine = new AudioOutputEngine(sink, 4, 2);
+    engine.write(1.0);
+    engine.close();
+    assertTimeoutPreemptively(java.time.Duration.ofSeconds(5), () -> {
+      // enough single samples to use up every block if they were accepted
+      for (int i = 0; i < 20; i++) {
+        assertThrows(IOException.class, () -> engine.write(0.5));
+      }
+      assertThrows(IOException.class, () -> engine.write(new double[8], 0, 8));
+      assertThrows(IOException.class, engine::flush);
+    });
+    assertEquals(1, sink.samples.size());
+    engine.close();
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("A NaN sample is rejected by the write that passes it, after the samples before it")
+  @Test
+  public void testNaNRejected() throws IOException {
+    RecordingSink sink = new RecordingSink(0);
+    AudioOutputEngine engine = new AudioOutputEngine(sink, 4, 2);
+    // the NaN sits in the second block, so the first is already queued when it is found
+    double[] samples = {0.1, 0.2, 0.3, 0.4, 0.5, Double.NaN, 0.7};
+    assertThrows(IllegalArgumentException.class, () -> engine.write(samples, 0, samples.length));
+    engine.write(0.6);
+    engine.close();
+    assertEquals(List.of(0.1, 0.2, 0.3, 0.4, 0.5, 0.6), sink.samples, "samples before the NaN should be played");
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("The engine needs at least two blocks")
+  @Test
+  public void testValidation() {
+    assertThrows(IllegalArgumentException.class, () -> new AudioOutputEngine(new RecordingSink(0), 16, 1));
+    assertThrows(IllegalArgumentException.class, () -> new AudioOutputEngine(new RecordingSink(0), 0, 4));
+  }
+}
@@ -0,0 +1,105 @@
+package edu.caltech.cs2.project03.libraries;
+
+import org.junit.jupiter.api.*;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.lang.reflect.Proxy;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class LineAudioSinkTests {
+  // a 100 ms line buffer, written 10 ms at a time
+  private static final PlaybackSettings SETTINGS = new PlaybackSettings(4410, 441, 4);
+
+  // a line that plays its buffer at the real sample rate, and like a sound card goes silent when it runs dry
+  private static class PacedLine {
+    private int bufferSize;
+    private int bytesPerFrame;
+    private long written;
+    private double played;
+    private long lastUpdate;
+
+    SourceDataLine proxy() {
+      return (SourceDataLine) Proxy.newProxyInstance(SourceDataLine.class.getClassLoader(),
+          new Class<?>[] {SourceDataLine.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+              case "open":
+                this.bufferSize = (Integer) args[1];
+                this.bytesPerFrame = ((AudioFormat) args[0]).getFrameSize();
+                return null;
+              case "start":
+                this.lastUpdate = System.nanoTime();
+                return null;
+              case "write":
+                return this.write((Integer) args[2]);
+              case "available":
+                return this.bufferSize - this.queued();
+              case "getBufferSize":
+                return this.bufferSize;
+              case "getLongFramePosition":
+                this.queued();
+                return (long) this.played / this.bytesPerFrame;
+              default:
+                // stop, drain and close need no simulation
+                return null;
+            }
+          });
+    }
+
+    // plays what the elapsed time allows, and returns the bytes still waiting in the buffer
+    private synchronized int queued() {
+      long now = System.nanoTime();
+      double rate = (double) PcmFormat.SAMPLE_RATE * this.bytesPerFrame / 1e9;
+      this.played = Math.min(this.written, this.played + (now - this.lastUpdate) * rate);
+      this.lastUpdate = now;
+      return (int) (this.written - (long) this.played);
+    }
+
+    // blocks until len bytes fit, as a sound card line does
+    private int write(int len) throws InterruptedException {
+      while (this.bufferSize - this.queued() < len) {
+        Thread.sleep(1);
+      }
+      synchronized (this) {
+        this.written += len;
+      }
+      return len;
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("A producer that keeps the line fed causes no underruns")
+  @Test
+  public void testFedLine() throws LineUnavailableException {
+    LineAudioSink sink = new LineAudioSink(new PacedLine().proxy(), SETTINGS);
+    double[] block = new double[SETTINGS.blockFrames()];
+    // 0.5 s of audio, written as fast as the line accepts it
+    for (int i = 0; i < 50; i++) {
+      sink.write(block, 0, block.length);
+    }
+    assertEquals(0, sink.underruns(), "a line that never runs dry should not count underruns");
+    sink.close();
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("A line left to play out its buffer counts one underrun per gap")
+  @Test
+  public void testStarvedLine() throws Exception {
+    LineAudioSink sink = new LineAudioSink(new PacedLine().proxy(), SETTINGS);
+    double[] block = new double[SETTINGS.blockFrames()];
+    sink.write(block, 0, block.length);
+    assertEquals(0, sink.underruns(), "the first write into a fresh line is not an underrun");
+    for (int gap = 1; gap <= 2; gap++) {
+      // far longer than the 10 ms just written
+      Thread.sleep(100);
+      sink.write(block, 0, block.length);
+      assertEquals(gap, sink.underruns());
+    }
+    sink.close();
+  }
+}
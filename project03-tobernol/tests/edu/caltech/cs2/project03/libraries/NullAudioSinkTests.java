@@ -0,0 +1,29 @@
+package edu.caltech.cs2.project03.libraries;
+
+import org.junit.jupiter.api.*;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class NullAudioSinkTests {
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("The null sink counts samples and reports throughput")
+  @Test
+  public void testCounts() throws Exception {
+    NullAudioSink sink = new NullAudioSink();
+    assertEquals(0, sink.samples());
+    assertEquals(0.0, sink.realtimeFactor());
+
+    double[] block = new double[PcmFormat.SAMPLE_RATE];
+    sink.write(block, 0, 100);
+    Thread.sleep(20);
+    sink.write(block);
+    assertEquals(100 + PcmFormat.SAMPLE_RATE, sink.samples());
+    // about a second of audio in about 20 ms
+    assertTrue(sink.realtimeFactor() > 1, "throughput was " + sink.realtimeFactor());
+    assertTrue(sink.realtimeFactor() < 60, "throughput was " + sink.realtimeFactor());
+  }
+}
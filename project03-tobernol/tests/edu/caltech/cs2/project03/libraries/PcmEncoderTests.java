@@ -0,0 +1,161 @@
+package edu.caltech.cs2.project03.libraries;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PcmEncoderTests {
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Block encoding without dither matches encoding one sample at a time")
+  @Test
+  public void testMatchesScalar() {
+    Random r = new Random(23);
+    double[] samples = new double[1000];
+    float[] floats = new float[samples.length];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = (r.nextDouble() - 0.5) * 3;
+      floats[i] = (float) samples[i];
+    }
+    samples[0] = Double.POSITIVE_INFINITY;
+    samples[1] = Double.NEGATIVE_INFINITY;
+
+    byte[] expected = new byte[2 * samples.length];
+    PcmFormat.encode(samples, 0, samples.length, expected, 0);
+    byte[] bytes = new byte[2 * samples.length];
+    ShortBuffer view = PcmEncoder.view(ByteBuffer.wrap(bytes));
+    PcmEncoder encoder = new PcmEncoder();
+    encoder.encode(samples, 0, 600, view);
+    encoder.encode(samples, 600, 400, view);
+    assertEquals(samples.length, view.position());
+    assertArrayEquals(expected, bytes);
+
+    view.clear();
+    encoder.encode(floats, 0, floats.length, view);
+    for (int i = 2; i < floats.length; i++) {
+      assertEquals(PcmFormat.encode(floats[i]), view.get(i));
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("NaN samples are rejected")
+  @Test
+  public void testNaN() {
+    ShortBuffer view = PcmEncoder.view(ByteBuffer.allocate(8));
+    double[] samples = {0.1, Double.NaN};
+    float[] floats = {0.1f, Float.NaN};
+    for (PcmEncoder.Dither dither : PcmEncoder.Dither.values()) {
+      PcmEncoder encoder = new PcmEncoder(dither);
+      assertThrows(IllegalArgumentException.class, () -> encoder.encode(samples, 0, 2, view));
+      assertThrows(IllegalArgumentException.class, () -> encoder.encode(floats, 0, 2, view));
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Dither preserves a level that truncation loses")
+  @Test
+  public void testTriangularDither() {
+    // 0.3 of a step: truncation always gives 0, dithered output averages to 0.3
+    double[] samples = new double[100_000];
+    Arrays.fill(samples, 0.3 / Short.MAX_VALUE);
+    ShortBuffer view = PcmEncoder.view(ByteBuffer.allocate(2 * samples.length));
+    new PcmEncoder(PcmEncoder.Dither.TRIANGULAR, new SplittableRandom(5)).encode(samples, 0, samples.length, view);
+    double sum = 0;
+    for (int i = 0; i < samples.length; i++) {
+      assertTrue(Math.abs(view.get(i)) <= 2);
+      sum += view.get(i);
+    }
+    assertEquals(0.3, sum / samples.length, 0.02);
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Shaped dither feeds back its error, so the running error stays within one sample's error")
+  @Test
+  public void testShapedDither() {
+    double[] samples = new double[10_000];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = 0.001 * Math.sin(i * 0.05);
+    }
+    ShortBuffer view = PcmEncoder.view(ByteBuffer.allocate(2 * samples.length));
+    PcmEncoder encoder = new PcmEncoder(PcmEncoder.Dither.SHAPED, new SplittableRandom(9));
+    for (int off = 0; off < samples.length; off += 500) {
+      encoder.encode(samples, off, 500, view);
+    }
+    double running = 0;
+    for (int i = 0; i < samples.length; i++) {
+      running += view.get(i) - Short.MAX_VALUE * samples[i];
+      assertTrue(Math.abs(running) <= 1.5 + 1e-9, "running error " + running + " at sample " + i);
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Interleaved channels shape their dither error separately")
+  @Test
+  public void testShapedDitherPerChannel() {
+    // a loud channel next to a quiet one: shared feedback would leak the loud channel's error across
+    double[] samples = new double[2 * 5000];
+    for (int i = 0; i < samples.length; i += 2) {
+      samples[i] = 0.5 * Math.sin(i * 0.01);
+      samples[i + 1] = 0.0004 * Math.sin(i * 0.003);
+    }
+    PcmEncoder encoder = new PcmEncoder(new OutputFormat(OutputFormat.Encoding.PCM_16, 2), PcmEncoder.Dither.SHAPED,
+        new SplittableRandom(4));
+    ByteBuffer bytes = ByteBuffer.allocate(2 * samples.length);
+    // an odd block size puts the channels in a different order in every block
+    for (int off = 0; off < samples.length; off += 777) {
+      encoder.encode(samples, off, Math.min(777, samples.length - off), bytes);
+    }
+    assertEquals(bytes.capacity(), bytes.position());
+    ShortBuffer view = PcmEncoder.view(bytes.flip());
+    for (int c = 0; c < 2; c++) {
+      double running = 0;
+      for (int i = c; i < samples.length; i += 2) {
+        running += view.get(i) - Short.MAX_VALUE * samples[i];
+        assertTrue(Math.abs(running) <= 1.5 + 1e-9, "channel " + c + " running error " + running);
+      }
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Float output keeps samples beyond full scale")
+  @Test
+  public void testFloat() {
+    double[] samples = {0.0, 0.5, -1.75, 3.0, 1e-9};
+    PcmEncoder encoder = new PcmEncoder(OutputFormat.STEREO_FLOAT, PcmEncoder.Dither.SHAPED);
+    ByteBuffer bytes = ByteBuffer.allocate(4 * samples.length);
+    encoder.encode(samples, 0, samples.length, bytes);
+    assertEquals(bytes.capacity(), bytes.position());
+    FloatBuffer floats = bytes.flip().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    for (int i = 0; i < samples.length; i++) {
+      assertEquals((float) samples[i], floats.get(i), "float output should be neither clipped nor dithered");
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> encoder.encode(new double[] {Double.NaN}, 0, 1, ByteBuffer.allocate(4)));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Dithered samples still clip to the 16-bit range")
+  @Test
+  public void testDitherClips() {
+    double[] samples = {1.0, -1.0, 5.0, -5.0};
+    for (PcmEncoder.Dither dither : PcmEncoder.Dither.values()) {
+      ShortBuffer view = PcmEncoder.view(ByteBuffer.allocate(8));
+      new PcmEncoder(dither).encode(samples, 0, samples.length, view);
+      for (int i = 0; i < samples.length; i++) {
+        assertTrue(Math.abs(view.get(i)) >= Short.MAX_VALUE - 2);
+        assertEquals(Math.signum(samples[i]), Math.signum(view.get(i)));
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package edu.caltech.cs2.project03.libraries;
+
+import org.junit.jupiter.api.*;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PlaybackSettingsTests {
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Latency counts the line buffer and every queued block")
+  @Test
+  public void testLatency() {
+    PlaybackSettings settings = new PlaybackSettings(1000, 100, 3);
+    assertEquals(1300, settings.latencyFrames());
+    assertEquals(1300.0 / PcmFormat.SAMPLE_RATE, settings.latencySeconds(), 1e-12);
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Presets are ordered from lowest to highest latency")
+  @Test
+  public void testPresets() {
+    assertTrue(PlaybackSettings.LOW_LATENCY.latencySeconds() < 0.015);
+    assertTrue(PlaybackSettings.LOW_LATENCY.latencySeconds() < PlaybackSettings.DEFAULT.latencySeconds());
+    assertEquals(4096, PlaybackSettings.DEFAULT.latencyFrames(), "the default should keep the original latency");
+    assertTrue(PlaybackSettings.DEFAULT.latencySeconds() < PlaybackSettings.HIGH_THROUGHPUT.latencySeconds());
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Formats describe their frames and change nothing else about the settings")
+  @Test
+  public void testFormat() {
+    assertEquals(OutputFormat.MONO_16, PlaybackSettings.DEFAULT.format());
+    PlaybackSettings stereo = PlaybackSettings.DEFAULT.withFormat(OutputFormat.STEREO_FLOAT);
+    assertEquals(OutputFormat.STEREO_FLOAT, stereo.format());
+    assertEquals(PlaybackSettings.DEFAULT.latencyFrames(), stereo.latencyFrames());
+    assertEquals(PlaybackSettings.DEFAULT.blockCount(), stereo.blockCount());
+
+    assertEquals(8, OutputFormat.STEREO_FLOAT.bytesPerFrame());
+    javax.sound.sampled.AudioFormat format = new OutputFormat(OutputFormat.Encoding.PCM_16, 6).audioFormat();
+    assertEquals(6, format.getChannels());
+    assertEquals(12, format.getFrameSize());
+    assertTrue(OutputFormat.MONO_16.audioFormat().matches(PcmFormat.format()));
+    assertThrows(IllegalArgumentException.class, () -> new OutputFormat(OutputFormat.Encoding.FLOAT_32, 0));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Blocks must fit in the line buffer and there must be at least two")
+  @Test
+  public void testValidation() {
+    assertThrows(IllegalArgumentException.class, () -> new PlaybackSettings(100, 200, 4));
+    assertThrows(IllegalArgumentException.class, () -> new PlaybackSettings(100, 0, 4));
+    assertThrows(IllegalArgumentException.class, () -> new PlaybackSettings(100, 50, 1));
+  }
+}
@@ -0,0 +1,67 @@
+package edu.caltech.cs2.project03.libraries;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class StdAudioSinkTests {
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Standard audio starts even when the machine has no sound card")
+  @Test
+  public void testStartsHeadless() {
+    assertNotNull(StdAudio.sink());
+    assertNotNull(StdAudio.settings());
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("play() rejects NaN samples on the call that passes them, whatever the sink")
+  @Test
+  public void testPlayRejectsNaN() {
+    assertThrows(IllegalArgumentException.class, () -> StdAudio.play(Double.NaN));
+    assertThrows(IllegalArgumentException.class, () -> StdAudio.play(new double[] {0.0, Double.NaN}));
+    // standard audio is still usable afterwards
+    StdAudio.play(new double[] {0.0, 0.0});
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Sink names select a null or file sink")
+  @Test
+  public void testOpenSink(@TempDir Path dir) throws Exception {
+    assertTrue(StdAudio.openSink("null", PlaybackSettings.DEFAULT) instanceof NullAudioSink);
+
+    File file = dir.resolve("out.wav").toFile();
+    AudioSink sink = StdAudio.openSink("file:" + file.getPath(), PlaybackSettings.DEFAULT);
+    assertTrue(sink instanceof WavFileSink);
+    sink.write(new double[1000]);
+    sink.close();
+    assertEquals(44 + 2000, Files.size(file.toPath()));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Format properties name an encoding and a channel count")
+  @Test
+  public void testParseFormat() {
+    assertEquals(OutputFormat.MONO_16, StdAudio.parseFormat("pcm16", "1"));
+    assertEquals(OutputFormat.STEREO_FLOAT, StdAudio.parseFormat("float32", "2"));
+    assertThrows(IllegalArgumentException.class, () -> StdAudio.parseFormat("pcm24", "1"));
+    assertThrows(IllegalArgumentException.class, () -> StdAudio.parseFormat("pcm16", "two"));
+    assertThrows(IllegalArgumentException.class, () -> StdAudio.parseFormat("pcm16", "0"));
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Unknown sink names are rejected")
+  @Test
+  public void testUnknownSink() {
+    assertThrows(IllegalArgumentException.class, () -> StdAudio.openSink("speakers", PlaybackSettings.DEFAULT));
+    assertThrows(IllegalArgumentException.class, () -> StdAudio.openSink("file:out.mp3", PlaybackSettings.DEFAULT));
+  }
+}
@@ -0,0 +1,152 @@
+package edu.caltech.cs2.project03.libraries;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class WavFileSinkTests {
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Streamed blocks produce a valid .wav file with patched sizes")
+  @Test
+  public void testStreamedFile(@TempDir Path dir) throws Exception {
+    File file = dir.resolve("out.wav").toFile();
+    double[] samples = new double[100_000];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = Math.sin(i * 0.01) * 1.2;
+    }
+    try (WavFileSink sink = new WavFileSink(file)) {
+      for (int off = 0; off < samples.length; off += 777) {
+        sink.write(samples, off, Math.min(777, samples.length - off));
+      }
+      assertEquals(samples.length, sink.samples());
+    }
+    assertEquals(44 + 2L * samples.length, Files.size(file.toPath()));
+
+    byte[] expected = new byte[2 * samples.length];
+    PcmFormat.encode(samples, 0, samples.length, expected, 0);
+    try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+      assertTrue(in.getFormat().matches(PcmFormat.format()), "the file should use the standard audio format");
+      assertEquals(samples.length, in.getFrameLength(), "the header should record every sample");
+      assertArrayEquals(expected, in.readAllBytes());
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Float stereo recordings keep unclipped, interleaved samples")
+  @Test
+  public void testFloatStereo(@TempDir Path dir) throws Exception {
+    File file = dir.resolve("stereo.wav").toFile();
+    double[] frames = new double[2 * 5000];
+    for (int i = 0; i < frames.length; i++) {
+      frames[i] = (i % 2 == 0 ? 1.5 : -0.25) * Math.sin(i * 0.01);
+    }
+    try (WavFileSink sink = new WavFileSink(file, OutputFormat.STEREO_FLOAT, PcmEncoder.Dither.NONE)) {
+      // an odd split leaves a frame straddling two writes
+      sink.write(frames, 0, 333);
+      sink.write(frames, 333, frames.length - 333);
+      assertEquals(frames.length, sink.samples());
+    }
+    ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(18, header.getInt(16), "float files need the 18-byte fmt chunk");
+    assertEquals(3, header.getShort(20), "the format tag should be IEEE float");
+    assertEquals(0, header.getShort(36), "the fmt chunk should have no extension");
+    assertEquals("fact", new String(header.array(), 38, 4), "float files need a fact chunk");
+    assertEquals(frames.length / 2, header.getInt(46), "the fact chunk should hold the frame count");
+    assertEquals("data", new String(header.array(), 50, 4));
+    assertEquals(4 * frames.length, header.getInt(54));
+    assertEquals(58 + 4L * frames.length, Files.size(file.toPath()));
+    try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+      assertEquals(2, in.getFormat().getChannels());
+      assertEquals(javax.sound.sampled.AudioFormat.Encoding.PCM_FLOAT, in.getFormat().getEncoding());
+      assertEquals(frames.length / 2, in.getFrameLength());
+      FloatBuffer floats = ByteBuffer.wrap(in.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+      assertEquals(frames.length, floats.remaining());
+      for (int i = 0; i < frames.length; i++) {
+        assertEquals((float) frames[i], floats.get(i));
+      }
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Recordings with more than two channels use the extensible format with a channel mask")
+  @Test
+  public void testExtensible(@TempDir Path dir) throws Exception {
+    File file = dir.resolve("surround.wav").toFile();
+    double[] frames = new double[6 * 1000];
+    for (int i = 0; i < frames.length; i++) {
+      frames[i] = (i % 6) / 10.0;
+    }
+    try (WavFileSink sink = new WavFileSink(file, new OutputFormat(OutputFormat.Encoding.PCM_16, 6),
+        PcmEncoder.Dither.NONE)) {
+      sink.write(frames);
+    }
+    ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(40, header.getInt(16), "the extensible fmt chunk holds 40 bytes");
+    assertEquals((short) 0xFFFE, header.getShort(20), "the format tag should be WAVE_FORMAT_EXTENSIBLE");
+    assertEquals(6, header.getShort(22));
+    assertEquals(22, header.getShort(36), "the extension holds 22 bytes");
+    assertEquals(16, header.getShort(38), "every bit of each sample is valid");
+    assertEquals(0x3F, header.getInt(40), "six channels map to the first six speaker positions");
+    assertEquals(1, header.getShort(44), "the subformat should be integer PCM");
+    assertEquals("data", new String(header.array(), 60, 4));
+    assertEquals(2 * frames.length, header.getInt(64));
+    assertEquals(2 * frames.length + 60, header.getInt(4));
+    try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+      assertEquals(6, in.getFormat().getChannels());
+      assertEquals(frames.length / 6, in.getFrameLength());
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("A write rejected partway through leaves a header that matches the data")
+  @Test
+  public void testRejectedWrite(@TempDir Path dir) throws Exception {
+    File file = dir.resolve("nan.wav").toFile();
+    // the NaN sits past the first buffer's worth of samples
+    double[] samples = new double[100_000];
+    samples[70_000] = Double.NaN;
+    long written;
+    try (WavFileSink sink = new WavFileSink(file)) {
+      assertThrows(IllegalArgumentException.class, () -> sink.write(samples));
+      written = sink.samples();
+      assertTrue(written < 70_000, "samples from the rejected block should not be counted");
+    }
+    long dataBytes = Files.size(file.toPath()) - 44;
+    assertEquals(written * 2, dataBytes, "the file should hold exactly the counted samples");
+    ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(dataBytes, header.getInt(40), "the data size in the header should match the file");
+    assertEquals(dataBytes + 36, header.getInt(4), "the RIFF size in the header should match the file");
+    try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+      assertEquals(dataBytes / 2, in.getFrameLength());
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("An empty recording is still a valid file, and closed sinks reject writes")
+  @Test
+  public void testEmptyAndClosed(@TempDir Path dir) throws Exception {
+    File file = dir.resolve("empty.wav").toFile();
+    WavFileSink sink = new WavFileSink(file);
+    sink.close();
+    sink.close();
+    try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+      assertEquals(0, in.getFrameLength());
+    }
+    assertThrows(IOException.class, () -> sink.write(new double[1]));
+  }
+}
@@ -0,0 +1,105 @@
+package edu.caltech.cs2.project03.libraries;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import static edu.caltech.cs2.project03.Project03TestOrdering.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("A")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class WavReaderTests {
+
+  private static double[] write(File file, int n) throws IOException {
+    double[] samples = new double[n];
+    for (int i = 0; i < n; i++) {
+      samples[i] = PcmFormat.decode(PcmFormat.encode(Math.sin(i * 0.003)));
+    }
+    try (WavFileSink sink = new WavFileSink(file)) {
+      sink.write(samples);
+    }
+    return samples;
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Reads every sample back across window boundaries")
+  @Test
+  public void testReadAcrossWindows(@TempDir Path dir) throws IOException {
+    File file = dir.resolve("in.wav").toFile();
+    double[] expected = write(file, 10_000);
+    try (WavReader reader = new WavReader(file, 999)) {
+      assertEquals(expected.length, reader.samples());
+      assertEquals(44100, reader.sampleRate());
+      double[] block = new double[317];
+      int total = 0;
+      int n;
+      while ((n = reader.read(block, 0, block.length)) != -1) {
+        for (int i = 0; i < n; i++) {
+          assertEquals(expected[total + i], block[i], "sample " + (total + i) + " differs");
+        }
+        total += n;
+      }
+      assertEquals(expected.length, total);
+
+      reader.seek(4321);
+      assertEquals(1, reader.read(block, 5, 1));
+      assertEquals(expected[4321], block[5]);
+      assertEquals(4322, reader.position());
+      assertThrows(IllegalArgumentException.class, () -> reader.seek(expected.length + 1));
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("blocks() iterates over the rest of the file")
+  @Test
+  public void testBlocks(@TempDir Path dir) throws IOException {
+    File file = dir.resolve("in.wav").toFile();
+    double[] expected = write(file, 1000);
+    try (WavReader reader = new WavReader(file, 64)) {
+      reader.seek(100);
+      Iterator<double[]> blocks = reader.blocks(256);
+      int pos = 100;
+      while (blocks.hasNext()) {
+        double[] block = blocks.next();
+        assertEquals(Math.min(256, expected.length - pos), block.length);
+        for (double x : block) {
+          assertEquals(expected[pos++], x);
+        }
+      }
+      assertEquals(expected.length, pos);
+    }
+  }
+
+  @Order(guitarStringTestLevel)
+  @DisplayName("Files written by AudioSystem are read, and unsupported formats are rejected")
+  @Test
+  public void testOtherWriters(@TempDir Path dir) throws IOException {
+    File mono = dir.resolve("mono.wav").toFile();
+    byte[] data = new byte[400];
+    data[2] = 0x10;
+    AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(data), PcmFormat.format(), 200),
+            AudioFileFormat.Type.WAVE, mono);
+    try (WavReader reader = new WavReader(mono)) {
+      assertEquals(200, reader.samples());
+      double[] samples = new double[200];
+      reader.read(samples, 0, 200);
+      assertEquals(PcmFormat.decode((short) 0x10), samples[1]);
+    }
+
+    File stereo = dir.resolve("stereo.wav").toFile();
+    AudioFormat format = new AudioFormat(44100, 16, 2, true, false);
+    AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(data), format, 100),
+            AudioFileFormat.Type.WAVE, stereo);
+    assertThrows(IOException.class, () -> new WavReader(stereo));
+  }
+}